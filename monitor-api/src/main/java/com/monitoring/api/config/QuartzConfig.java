@@ -1,6 +1,11 @@
 package com.monitoring.api.config;
 
 import com.monitoring.api.scheduler.CheckSchedulerJob;
+import com.monitoring.api.scheduler.CheckSiteSyncJob;
+import com.monitoring.api.scheduler.PartitionMaintenanceJob;
+import com.monitoring.api.scheduler.RetentionJob;
+import com.monitoring.api.scheduler.SchedulerHeartbeatJob;
+import com.monitoring.api.scheduler.SiteStatusRefreshJob;
 import com.monitoring.api.scheduler.WeeklyReportJob;
 import org.quartz.*;
 import org.springframework.beans.factory.annotation.Value;
@@ -13,6 +18,18 @@ public class QuartzConfig {
     @Value("${monitoring.weekly-report-timezone:America/Sao_Paulo}")
     private String timezone;
     
+    @Value("${monitoring.retention.cron:0 0 3 * * ?}")
+    private String retentionCron;
+    
+    @Value("${monitoring.scheduler.heartbeat-seconds:10}")
+    private int heartbeatSeconds;
+    
+    @Value("${monitoring.scheduler.site-sync-seconds:60}")
+    private int siteSyncSeconds;
+    
+    @Value("${monitoring.site-status.refresh-seconds:5}")
+    private int siteStatusRefreshSeconds;
+    
     @Bean
     public JobDetail checkSchedulerJobDetail() {
         return JobBuilder.newJob(CheckSchedulerJob.class)
@@ -23,12 +40,73 @@ public class QuartzConfig {
     
     @Bean
     public Trigger checkSchedulerTrigger() {
-        // Run every minute to check for due sites
+        // Tick every second: due sites come from the in-memory queue
         return TriggerBuilder.newTrigger()
             .forJob(checkSchedulerJobDetail())
             .withIdentity("checkSchedulerTrigger")
             .withSchedule(SimpleScheduleBuilder.simpleSchedule()
-                .withIntervalInMinutes(1)
+                .withIntervalInSeconds(1)
+                .repeatForever()
+                .withMisfireHandlingInstructionNextWithRemainingCount())
+            .build();
+    }
+    
+    @Bean
+    public JobDetail schedulerHeartbeatJobDetail() {
+        return JobBuilder.newJob(SchedulerHeartbeatJob.class)
+            .withIdentity("schedulerHeartbeatJob")
+            .storeDurably()
+            .build();
+    }
+    
+    @Bean
+    public Trigger schedulerHeartbeatTrigger() {
+        // Keeps this replica in the check scheduler ring and picks up membership changes
+        return TriggerBuilder.newTrigger()
+            .forJob(schedulerHeartbeatJobDetail())
+            .withIdentity("schedulerHeartbeatTrigger")
+            .withSchedule(SimpleScheduleBuilder.simpleSchedule()
+                .withIntervalInSeconds(heartbeatSeconds)
+                .repeatForever())
+            .build();
+    }
+    
+    @Bean
+    public JobDetail checkSiteSyncJobDetail() {
+        return JobBuilder.newJob(CheckSiteSyncJob.class)
+            .withIdentity("checkSiteSyncJob")
+            .storeDurably()
+            .build();
+    }
+    
+    @Bean
+    public Trigger checkSiteSyncTrigger() {
+        // Sites created or changed through other replicas
+        return TriggerBuilder.newTrigger()
+            .forJob(checkSiteSyncJobDetail())
+            .withIdentity("checkSiteSyncTrigger")
+            .withSchedule(SimpleScheduleBuilder.simpleSchedule()
+                .withIntervalInSeconds(siteSyncSeconds)
+                .repeatForever())
+            .build();
+    }
+    
+    @Bean
+    public JobDetail siteStatusRefreshJobDetail() {
+        return JobBuilder.newJob(SiteStatusRefreshJob.class)
+            .withIdentity("siteStatusRefreshJob")
+            .storeDurably()
+            .build();
+    }
+    
+    @Bean
+    public Trigger siteStatusRefreshTrigger() {
+        // Runs ingested by other replicas: bounds how stale this replica's status map gets
+        return TriggerBuilder.newTrigger()
+            .forJob(siteStatusRefreshJobDetail())
+            .withIdentity("siteStatusRefreshTrigger")
+            .withSchedule(SimpleScheduleBuilder.simpleSchedule()
+                .withIntervalInSeconds(siteStatusRefreshSeconds)
                 .repeatForever())
             .build();
     }
@@ -52,4 +130,45 @@ public class QuartzConfig {
                 .inTimeZone(java.util.TimeZone.getTimeZone(timezone)))
             .build();
     }
+    
+    @Bean
+    public JobDetail retentionJobDetail() {
+        return JobBuilder.newJob(RetentionJob.class)
+            .withIdentity("retentionJob")
+            .storeDurably()
+            .build();
+    }
+    
+    @Bean
+    public Trigger retentionTrigger() {
+        // Off-peak (default 03:00) in configured timezone
+        return TriggerBuilder.newTrigger()
+            .forJob(retentionJobDetail())
+            .withIdentity("retentionTrigger")
+            .withSchedule(CronScheduleBuilder
+                .cronSchedule(retentionCron)
+                .inTimeZone(java.util.TimeZone.getTimeZone(timezone)))
+            .build();
+    }
+    
+    @Bean
+    public JobDetail partitionMaintenanceJobDetail() {
+        return JobBuilder.newJob(PartitionMaintenanceJob.class)
+            .withIdentity("partitionMaintenanceJob")
+            .storeDurably()
+            .build();
+    }
+    
+    @Bean
+    public Trigger partitionMaintenanceTrigger() {
+        // On startup, then daily: keeps next months' partitions created
+        return TriggerBuilder.newTrigger()
+            .forJob(partitionMaintenanceJobDetail())
+            .withIdentity("partitionMaintenanceTrigger")
+            .startNow()
+            .withSchedule(SimpleScheduleBuilder.simpleSchedule()
+                .withIntervalInHours(24)
+                .repeatForever())
+            .build();
+    }
 }
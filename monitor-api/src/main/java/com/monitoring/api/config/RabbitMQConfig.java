@@ -1,6 +1,9 @@
 package com.monitoring.api.config;
 
+import com.monitoring.api.domain.enums.CheckTrigger;
+import org.springframework.amqp.core.MessagePostProcessor;
 import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.core.QueueBuilder;
 import org.springframework.amqp.rabbit.connection.ConnectionFactory;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
@@ -12,11 +15,33 @@ public class RabbitMQConfig {
     
     public static final String RUN_CHECK_QUEUE = "monitor.run-check";
     
+    // Queue arguments can't change on redeclare, so priorities live in a new queue;
+    // the legacy one stays declared until messages from older publishers drain
+    public static final String RUN_CHECK_PRIORITY_QUEUE = "monitor.run-check.priority";
+    public static final int RUN_CHECK_MAX_PRIORITY = 10;
+    
     @Bean
     public Queue runCheckQueue() {
         return new Queue(RUN_CHECK_QUEUE, true);
     }
     
+    @Bean
+    public Queue runCheckPriorityQueue() {
+        return QueueBuilder.durable(RUN_CHECK_PRIORITY_QUEUE)
+            .maxPriority(RUN_CHECK_MAX_PRIORITY)
+            .build();
+    }
+    
+    /**
+     * Define a prioridade da mensagem conforme a origem do check.
+     */
+    public static MessagePostProcessor withPriority(CheckTrigger trigger) {
+        return message -> {
+            message.getMessageProperties().setPriority(trigger.priority());
+            return message;
+        };
+    }
+    
     @Bean
     public Jackson2JsonMessageConverter jsonMessageConverter() {
         return new Jackson2JsonMessageConverter();
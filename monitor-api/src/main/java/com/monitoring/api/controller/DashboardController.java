@@ -1,8 +1,12 @@
 package com.monitoring.api.controller;
 
 import com.monitoring.api.dto.dashboard.*;
+import com.monitoring.api.service.DashboardCache;
 import com.monitoring.api.service.DashboardService;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -21,6 +25,8 @@ import java.util.List;
  * GET /api/dashboard/overview              - Overview com métricas agregadas
  * GET /api/dashboard/timeseries/errors     - Série temporal de erros
  * GET /api/dashboard/timeseries/perf       - Série temporal de performance
+ * GET /api/dashboard/bundle                - Tudo acima + runs recentes, em uma resposta
+ * GET /api/dashboard/fleet                 - Status de todos os sites (paginado)
  * </pre>
  * 
  * <p><b>Parâmetros comuns:</b></p>
@@ -28,12 +34,20 @@ import java.util.List;
  *   <li><b>siteId:</b> ID do site a ser analisado (obrigatório)</li>
  *   <li><b>range:</b> Período de análise - 1h, 6h, 24h, 7d, 30d (padrão: 24h)</li>
  *   <li><b>bucket:</b> Intervalo de agrupamento - 5m, 1h, 6h, 1d (padrão: 1h)</li>
+ *   <li><b>maxPoints:</b> Limite de pontos da série, reduzida por LTTB (opcional)</li>
  * </ul>
  * 
+ * <p><b>Cache:</b> as respostas passam pelo {@link DashboardCache}, invalidado a cada Run
+ * ingerida do site; recarregamentos entre duas Runs não consultam o banco. O bundle
+ * também responde com ETag: polls com {@code If-None-Match} sem Run nova recebem 304.</p>
+ * 
  * <p><b>Exemplo de uso:</b></p>
  * <pre>
  * GET /api/dashboard/overview?siteId=1&range=24h
  * GET /api/dashboard/timeseries/errors?siteId=1&range=7d&bucket=6h
+ * GET /api/dashboard/timeseries/perf?siteId=1&range=7d&bucket=5m&maxPoints=500
+ * GET /api/dashboard/bundle?siteId=1&range=24h&perfRange=7d
+ * GET /api/dashboard/fleet?range=24h&sort=health&page=0&size=50
  * </pre>
  * 
  * @author Sistema de Monitoramento
@@ -47,32 +61,88 @@ import java.util.List;
 @RequestMapping("/api/dashboard")
 public class DashboardController {
     
+    private static final int MAX_FLEET_PAGE_SIZE = 500;
+    
     private final DashboardService dashboardService;
+    private final DashboardCache dashboardCache;
     
-    public DashboardController(DashboardService dashboardService) {
+    public DashboardController(DashboardService dashboardService, DashboardCache dashboardCache) {
         this.dashboardService = dashboardService;
+        this.dashboardCache = dashboardCache;
     }
     
     @GetMapping("/overview")
     public ResponseEntity<OverviewResponse> getOverview(
             @RequestParam Long siteId,
             @RequestParam(defaultValue = "24h") String range) {
-        return ResponseEntity.ok(dashboardService.getOverview(siteId, range));
+        // A degraded (partial) answer is returned but never cached
+        return ResponseEntity.ok(dashboardCache.get(
+            new DashboardCache.Key(siteId, "overview", range, null, null),
+            () -> dashboardService.getOverview(siteId, range),
+            overview -> !overview.partial()));
     }
     
     @GetMapping("/timeseries/errors")
     public ResponseEntity<TimeseriesResponse> getErrorTimeseries(
             @RequestParam Long siteId,
             @RequestParam(defaultValue = "24h") String range,
-            @RequestParam(defaultValue = "1h") String bucket) {
-        return ResponseEntity.ok(dashboardService.getErrorTimeseries(siteId, range, bucket));
+            @RequestParam(defaultValue = "1h") String bucket,
+            @RequestParam(required = false) Integer maxPoints) {
+        return ResponseEntity.ok(dashboardCache.get(
+            new DashboardCache.Key(siteId, "errors", range, bucket, maxPoints),
+            () -> dashboardService.getErrorTimeseries(siteId, range, bucket, maxPoints)));
     }
     
     @GetMapping("/timeseries/perf")
     public ResponseEntity<TimeseriesResponse> getPerfTimeseries(
             @RequestParam Long siteId,
             @RequestParam(defaultValue = "7d") String range,
-            @RequestParam(defaultValue = "1h") String bucket) {
-        return ResponseEntity.ok(dashboardService.getPerfTimeseries(siteId, range, bucket));
+            @RequestParam(defaultValue = "1h") String bucket,
+            @RequestParam(required = false) Integer maxPoints) {
+        return ResponseEntity.ok(dashboardCache.get(
+            new DashboardCache.Key(siteId, "perf", range, bucket, maxPoints),
+            () -> dashboardService.getPerfTimeseries(siteId, range, bucket, maxPoints)));
+    }
+    
+    @GetMapping("/bundle")
+    public ResponseEntity<DashboardBundle> getBundle(
+            @RequestParam Long siteId,
+            @RequestParam(defaultValue = "24h") String range,
+            @RequestParam(defaultValue = "7d") String perfRange,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        // Version check before any query: unchanged polls cost one map lookup
+        String etag = dashboardService.bundleEtag(siteId, range, perfRange);
+        if (etag.equals(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        
+        DashboardBundle bundle = dashboardCache.get(
+            new DashboardCache.Key(siteId, "bundle", range, perfRange, null),
+            () -> dashboardService.getBundle(siteId, range, perfRange),
+            fresh -> !fresh.partial());
+        if (bundle.partial()) {
+            // Neither cached nor tagged
+            return ResponseEntity.ok().cacheControl(CacheControl.noStore()).body(bundle);
+        }
+        // Tag what is actually served: a cached bundle older than the latest run gets a stale tag
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache())
+            .eTag(dashboardService.bundleEtag(bundle, range, perfRange))
+            .body(bundle);
+    }
+    
+    @GetMapping("/fleet")
+    public ResponseEntity<FleetPage> getFleet(
+            @RequestParam(defaultValue = "24h") String range,
+            @RequestParam(defaultValue = "health") String sort,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size) {
+        if (page < 0 || size < 1 || size > MAX_FLEET_PAGE_SIZE) {
+            return ResponseEntity.badRequest().build();
+        }
+        // The whole fleet is computed and cached once per range/sort; pages are slices of it
+        List<FleetSiteSummary> fleet = dashboardCache.get(
+            new DashboardCache.Key(null, "fleet", range, null, sort),
+            () -> dashboardService.getFleet(range, sort));
+        return ResponseEntity.ok(FleetPage.slice(fleet, page, size));
     }
 }
@@ -0,0 +1,85 @@
+package com.monitoring.api.controller;
+
+import com.monitoring.api.service.export.HistoryExportService;
+import com.monitoring.api.service.export.HistoryExportService.Dataset;
+import com.monitoring.api.service.export.HistoryExportService.Format;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDateTime;
+
+/**
+ * REST Controller para exportação em massa do histórico de monitoramento.
+ * 
+ * <p>Transmite os registros em streaming (memória constante, independente do período),
+ * para análise offline sem acesso direto ao banco.</p>
+ * 
+ * <p><b>Endpoints:</b></p>
+ * <pre>
+ * GET /api/export/runs?siteId={id}&from={date}&to={date}&format=ndjson|csv
+ * GET /api/export/page-results?siteId={id}&from={date}&to={date}&format=ndjson|csv
+ * GET /api/export/failures?siteId={id}&from={date}&to={date}&format=ndjson|csv
+ * </pre>
+ * 
+ * <p><b>Exemplo de uso:</b></p>
+ * <pre>
+ * curl -o runs.ndjson "http://localhost:8080/api/export/runs?siteId=1&from=2026-01-01T00:00:00&to=2026-02-01T00:00:00"
+ * curl -o failures.csv "http://localhost:8080/api/export/failures?siteId=1&from=...&to=...&format=csv"
+ * </pre>
+ * 
+ * <p><b>Tratamento de Erros:</b></p>
+ * <ul>
+ *   <li>400 Bad Request: dataset ou formato desconhecido, período inválido</li>
+ * </ul>
+ * 
+ * @author Sistema de Monitoramento
+ * @version 1.0
+ * @since 2026-02-02
+ * @see HistoryExportService
+ */
+@RestController
+@RequestMapping("/api/export")
+public class ExportController {
+    
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    private static final MediaType CSV = MediaType.parseMediaType("text/csv;charset=UTF-8");
+    
+    private final HistoryExportService historyExportService;
+    
+    public ExportController(HistoryExportService historyExportService) {
+        this.historyExportService = historyExportService;
+    }
+    
+    @GetMapping("/{dataset}")
+    public ResponseEntity<StreamingResponseBody> export(
+            @PathVariable String dataset,
+            @RequestParam Long siteId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "ndjson") String format) {
+        Dataset exportDataset;
+        Format exportFormat;
+        try {
+            exportDataset = Dataset.fromPath(dataset);
+            exportFormat = Format.fromParam(format);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (!from.isBefore(to)) {
+            return ResponseEntity.badRequest().build();
+        }
+        
+        String filename = dataset + "-site" + siteId + (exportFormat == Format.CSV ? ".csv" : ".ndjson");
+        StreamingResponseBody body = out ->
+            historyExportService.export(exportDataset, exportFormat, siteId, from, to, out);
+        
+        return ResponseEntity.ok()
+            .contentType(exportFormat == Format.CSV ? CSV : NDJSON)
+            .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+            .body(body);
+    }
+}
@@ -3,12 +3,18 @@ package com.monitoring.api.controller;
 import com.monitoring.api.dto.ingest.IngestRunRequest;
 import com.monitoring.api.dto.ingest.IngestRunResponse;
 import com.monitoring.api.service.IngestService;
+import com.monitoring.api.service.ingest.AsyncIngestPipeline;
 import io.github.resilience4j.ratelimiter.annotation.RateLimiter;
 import jakarta.validation.Valid;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
 /**
  * REST Controller para ingestão de resultados de runs (usado pelo monitor-runner).
  * 
@@ -30,14 +36,23 @@ import org.springframework.web.bind.annotation.*;
  * }
  * 
  * Response: 200 OK → IngestRunResponse { runId }
- *           429 Too Many Requests → Rate limit exceeded
+ *           202 Accepted → Run enfileirada (modo async, durabilidade enqueue)
+ *           429 Too Many Requests → Rate limit exceeded ou buffer de ingestão cheio
  *           400 Bad Request → Validação falhou
+ *           503 Service Unavailable → Commit não confirmado a tempo (modo async, durabilidade commit)
  * </pre>
  * 
+ * <p><b>Modos de Ingestão ({@code monitoring.ingest.mode}):</b></p>
+ * <ul>
+ *   <li>sync (padrão): grava a Run dentro da requisição HTTP</li>
+ *   <li>async: enfileira no {@link AsyncIngestPipeline}, que grava em grupo</li>
+ * </ul>
+ * 
  * @author Sistema de Monitoramento
  * @version 1.0
  * @since 2026-02-02
  * @see IngestService
+ * @see AsyncIngestPipeline
  * @see IngestRunRequest
  */
 @RestController
@@ -45,9 +60,11 @@ import org.springframework.web.bind.annotation.*;
 public class IngestController {
     
     private final IngestService ingestService;
+    private final AsyncIngestPipeline asyncIngestPipeline;
     
-    public IngestController(IngestService ingestService) {
+    public IngestController(IngestService ingestService, AsyncIngestPipeline asyncIngestPipeline) {
         this.ingestService = ingestService;
+        this.asyncIngestPipeline = asyncIngestPipeline;
     }
     
     /**
@@ -62,10 +79,54 @@ public class IngestController {
     @PostMapping("/runs")
     @RateLimiter(name = "ingest", fallbackMethod = "ingestRateLimitFallback")
     public ResponseEntity<IngestRunResponse> ingestRun(@Valid @RequestBody IngestRunRequest request) {
+        if (asyncIngestPipeline.isEnabled()) {
+            return ingestAsync(request);
+        }
+        
         IngestRunResponse response = ingestService.ingestRun(request);
         return ResponseEntity.ok(response);
     }
     
+    private ResponseEntity<IngestRunResponse> ingestAsync(IngestRunRequest request) {
+        // Unknown site/page: rejected now, not dropped after the 202
+        ingestService.validateReferences(request);
+        
+        Optional<AsyncIngestPipeline.QueuedRun> queued = asyncIngestPipeline.submit(request);
+        
+        if (queued.isEmpty()) {
+            return ResponseEntity
+                .status(HttpStatus.TOO_MANY_REQUESTS)
+                .header("Retry-After", "1")
+                .body(new IngestRunResponse(null, "Ingest buffer full. Retry later."));
+        }
+        
+        long runId = queued.get().pending().runId();
+        
+        if (!asyncIngestPipeline.isCommitDurability()) {
+            return ResponseEntity
+                .status(HttpStatus.ACCEPTED)
+                .body(new IngestRunResponse(runId, "Run accepted for ingestion"));
+        }
+        
+        try {
+            queued.get().committed().get(asyncIngestPipeline.getCommitTimeoutMs(), TimeUnit.MILLISECONDS);
+            return ResponseEntity.ok(new IngestRunResponse(runId));
+        } catch (ExecutionException e) {
+            // Same contract as the synchronous path (unknown site/page)
+            if (e.getCause() instanceof IllegalArgumentException iae) {
+                throw iae;
+            }
+            throw new IllegalStateException("Failed to ingest run " + runId, e.getCause());
+        } catch (TimeoutException e) {
+            return ResponseEntity
+                .status(HttpStatus.SERVICE_UNAVAILABLE)
+                .body(new IngestRunResponse(runId, "Run queued but not committed in time"));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for ingest commit", e);
+        }
+    }
+    
     /**
      * Fallback method quando rate limit é excedido.
      * 
@@ -2,6 +2,7 @@ package com.monitoring.api.controller;
 
 import com.monitoring.api.domain.entity.Run;
 import com.monitoring.api.domain.repository.RunRepository;
+import com.monitoring.api.dto.dashboard.RunPage;
 import com.monitoring.api.dto.dashboard.RunSummaryDTO;
 import com.monitoring.api.service.DashboardService;
 import org.springframework.format.annotation.DateTimeFormat;
@@ -9,7 +10,6 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDateTime;
-import java.util.List;
 
 /**
  * REST Controller para consulta de execuções (Runs) de monitoramento.
@@ -18,7 +18,7 @@ import java.util.List;
  * 
  * <p><b>Endpoints:</b></p>
  * <pre>
- * GET /api/runs?siteId={id}&from={date}&to={date}  - Lista runs de um site em período
+ * GET /api/runs?siteId={id}&from={date}&to={date}  - Lista runs de um site em período (paginada)
  * GET /api/runs/{id}                                 - Detalhes completos de uma run
  * </pre>
  * 
@@ -26,7 +26,10 @@ import java.util.List;
  * <ul>
  *   <li>Retorna resumo de runs (RunSummaryDTO) sem coleções lazy</li>
  *   <li>Filtro obrigatório por siteId e período (from, to)</li>
- *   <li>Ordenação: por started_at DESC (mais recentes primeiro)</li>
+ *   <li>Ordenação: por started_at DESC, id DESC (mais recentes primeiro)</li>
+ *   <li>Paginação keyset: {@code limit} (padrão 50, máximo 500) e {@code cursor}, copiado de
+ *       {@code nextCursor} da página anterior; {@code nextCursor} null indica a última página</li>
+ *   <li>Custo constante por página: uma query de runs e uma de failures</li>
  *   <li>Usado para histórico e gráficos no dashboard</li>
  * </ul>
  * 
@@ -61,20 +64,27 @@ import java.util.List;
  * <p><b>Exemplo de Uso:</b></p>
  * <pre>
  * // Lista últimas runs das últimas 24h
- * GET /api/runs?siteId=1&from=2026-02-01T00:00:00&to=2026-02-02T00:00:00
+ * GET /api/runs?siteId=1&from=2026-02-01T00:00:00&to=2026-02-02T00:00:00&limit=50
  * 
  * Response:
- * [
- *   {
- *     "id": 123,
- *     "status": "SUCCESS",
- *     "startedAt": "2026-02-02T09:00:00",
- *     "endedAt": "2026-02-02T09:00:15",
- *     "criticalCount": 0,
- *     "majorCount": 0,
- *     "minorCount": 1
- *   }
- * ]
+ * {
+ *   "runs": [
+ *     {
+ *       "id": 123,
+ *       "status": "SUCCESS",
+ *       "startedAt": "2026-02-02T09:00:00",
+ *       "endedAt": "2026-02-02T09:00:15",
+ *       "criticalCount": 0,
+ *       "majorCount": 0,
+ *       "minorCount": 1,
+ *       "failures": [...]
+ *     }
+ *   ],
+ *   "nextCursor": "MjAyNi0wMi0wMlQwOTowMHwxMjM"
+ * }
+ * 
+ * // Próxima página
+ * GET /api/runs?siteId=1&from=...&to=...&cursor=MjAyNi0wMi0wMlQwOTowMHwxMjM
  * 
  * // Detalhes completos de uma run
  * GET /api/runs/123
@@ -94,6 +104,7 @@ import java.util.List;
  *   <li>404 Not Found: Run com ID especificado não existe</li>
  *   <li>400 Bad Request: Parâmetros obrigatórios ausentes (siteId, from, to)</li>
  *   <li>400 Bad Request: Formato de data inválido</li>
+ *   <li>400 Bad Request: Cursor inválido</li>
  * </ul>
  * 
  * @author Sistema de Monitoramento
@@ -116,11 +127,17 @@ public class RunController {
     }
     
     @GetMapping
-    public ResponseEntity<List<RunSummaryDTO>> getRuns(
+    public ResponseEntity<RunPage> getRuns(
             @RequestParam Long siteId,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
-        return ResponseEntity.ok(dashboardService.getRuns(siteId, from, to));
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+        try {
+            return ResponseEntity.ok(dashboardService.getRuns(siteId, from, to, cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
     
     @GetMapping("/{id}")
@@ -3,12 +3,15 @@ package com.monitoring.api.controller;
 import com.monitoring.api.config.RabbitMQConfig;
 import com.monitoring.api.domain.entity.Site;
 import com.monitoring.api.domain.entity.SitePage;
+import com.monitoring.api.domain.enums.CheckMode;
+import com.monitoring.api.domain.enums.CheckTrigger;
 import com.monitoring.api.domain.repository.SitePageRepository;
 import com.monitoring.api.domain.repository.SiteRepository;
 import com.monitoring.api.dto.api.CreateSiteRequest;
 import com.monitoring.api.dto.api.PageConfigDTO;
 import com.monitoring.api.dto.api.SiteConfigResponse;
 import com.monitoring.api.dto.message.RunCheckMessage;
+import com.monitoring.api.service.CheckSchedulerService;
 import jakarta.validation.Valid;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.http.ResponseEntity;
@@ -50,11 +53,14 @@ public class SiteController {
     private final SiteRepository siteRepository;
     private final SitePageRepository pageRepository;
     private final RabbitTemplate rabbitTemplate;
+    private final CheckSchedulerService checkSchedulerService;
     
-    public SiteController(SiteRepository siteRepository, SitePageRepository pageRepository, RabbitTemplate rabbitTemplate) {
+    public SiteController(SiteRepository siteRepository, SitePageRepository pageRepository,
+                          RabbitTemplate rabbitTemplate, CheckSchedulerService checkSchedulerService) {
         this.siteRepository = siteRepository;
         this.pageRepository = pageRepository;
         this.rabbitTemplate = rabbitTemplate;
+        this.checkSchedulerService = checkSchedulerService;
     }
     
     @GetMapping("/{id}/config")
@@ -65,13 +71,19 @@ public class SiteController {
         List<SitePage> pages = pageRepository.findBySiteIdAndEnabledTrue(id);
         
         List<PageConfigDTO> pageConfigs = pages.stream()
-            .map(p -> new PageConfigDTO(p.getId(), p.getName(), p.getPath()))
+            .map(p -> new PageConfigDTO(
+                p.getId(),
+                p.getName(),
+                p.getPath(),
+                p.getCheckMode() != null ? p.getCheckMode().name() : null
+            ))
             .collect(Collectors.toList());
         
         SiteConfigResponse response = new SiteConfigResponse(
             site.getId(),
             site.getName(),
             site.getBaseUrl(),
+            site.getCheckMode().name(),
             pageConfigs
         );
         
@@ -125,6 +137,7 @@ public class SiteController {
         site.setBaseUrl(urlParts.baseUrl());
         site.setEnabled(request.enabled());
         site.setFrequencySeconds(request.frequencySeconds() != null ? request.frequencySeconds() : 300);
+        site.setCheckMode(request.checkMode() != null ? request.checkMode() : CheckMode.BROWSER);
         
         Site savedSite = siteRepository.save(site);
         
@@ -136,6 +149,8 @@ public class SiteController {
         defaultPage.setEnabled(true);
         pageRepository.save(defaultPage);
         
+        checkSchedulerService.register(savedSite);
+        
         return ResponseEntity.ok(savedSite);
     }
     
@@ -147,10 +162,12 @@ public class SiteController {
         RunCheckMessage message = new RunCheckMessage(
             site.getId(),
             site.getName(),
-            site.getBaseUrl()
+            site.getBaseUrl(),
+            CheckTrigger.MANUAL
         );
         
-        rabbitTemplate.convertAndSend(RabbitMQConfig.RUN_CHECK_QUEUE, message);
+        rabbitTemplate.convertAndSend(RabbitMQConfig.RUN_CHECK_PRIORITY_QUEUE, message,
+            RabbitMQConfig.withPriority(CheckTrigger.MANUAL));
         
         return ResponseEntity.accepted().build();
     }
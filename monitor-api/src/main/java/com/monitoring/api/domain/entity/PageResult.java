@@ -2,7 +2,11 @@ package com.monitoring.api.domain.entity;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
 import java.time.LocalDateTime;
+import java.util.Map;
 
 @Entity
 @Table(name = "page_results")
@@ -39,6 +43,10 @@ public class PageResult {
     @Column(name = "total_bytes", nullable = false)
     private Long totalBytes = 0L;
 
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "bytes_by_type", columnDefinition = "jsonb")
+    private Map<String, Long> bytesByType;
+
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
@@ -120,6 +128,14 @@ public class PageResult {
         this.totalBytes = totalBytes;
     }
 
+    public Map<String, Long> getBytesByType() {
+        return bytesByType;
+    }
+
+    public void setBytesByType(Map<String, Long> bytesByType) {
+        this.bytesByType = bytesByType;
+    }
+
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
@@ -217,6 +217,10 @@ public class Run {
         return createdAt;
     }
 
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
     public List<PageResult> getPageResults() {
         return pageResults;
     }
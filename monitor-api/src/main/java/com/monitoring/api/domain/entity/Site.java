@@ -1,6 +1,7 @@
 package com.monitoring.api.domain.entity;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.monitoring.api.domain.enums.CheckMode;
 import jakarta.persistence.*;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -15,6 +16,7 @@ import java.util.List;
  *   <li>Regras de validação customizadas (Rule)</li>
  *   <li>Histórico de execuções (Run)</li>
  *   <li>Configuração de frequência de checks</li>
+ *   <li>Modo de verificação padrão das páginas (BROWSER ou HTTP)</li>
  *   <li>Lista de destinatários para alertas por email</li>
  * </ul>
  * 
@@ -38,6 +40,7 @@ import java.util.List;
  *   <li>baseUrl: obrigatório, deve ser URL válida, máx 500 chars</li>
  *   <li>frequencySeconds: obrigatório, > 0, padrão 300s (5 min)</li>
  *   <li>enabled: obrigatório, padrão true</li>
+ *   <li>checkMode: obrigatório, padrão BROWSER</li>
  * </ul>
  * 
  * <p><b>Indexação:</b></p>
@@ -72,6 +75,10 @@ public class Site {
     @Column(name = "frequency_seconds", nullable = false)
     private Integer frequencySeconds = 300;
 
+    @Enumerated(EnumType.STRING)
+    @Column(name = "check_mode", nullable = false, length = 20)
+    private CheckMode checkMode = CheckMode.BROWSER;
+
     @Column(name = "email_recipients", columnDefinition = "TEXT")
     private String emailRecipients;
 
@@ -141,6 +148,14 @@ public class Site {
         this.frequencySeconds = frequencySeconds;
     }
 
+    public CheckMode getCheckMode() {
+        return checkMode;
+    }
+
+    public void setCheckMode(CheckMode checkMode) {
+        this.checkMode = checkMode;
+    }
+
     public String getEmailRecipients() {
         return emailRecipients;
     }
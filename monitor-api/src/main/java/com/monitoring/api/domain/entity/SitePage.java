@@ -1,6 +1,7 @@
 package com.monitoring.api.domain.entity;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.monitoring.api.domain.enums.CheckMode;
 import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
@@ -27,6 +28,11 @@ public class SitePage {
     @Column(nullable = false)
     private Boolean enabled = true;
 
+    // Overrides the site check mode when set
+    @Enumerated(EnumType.STRING)
+    @Column(name = "check_mode", length = 20)
+    private CheckMode checkMode;
+
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
@@ -76,6 +82,14 @@ public class SitePage {
         this.enabled = enabled;
     }
 
+    public CheckMode getCheckMode() {
+        return checkMode;
+    }
+
+    public void setCheckMode(CheckMode checkMode) {
+        this.checkMode = checkMode;
+    }
+
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
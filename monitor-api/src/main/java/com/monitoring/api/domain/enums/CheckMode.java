@@ -0,0 +1,14 @@
+package com.monitoring.api.domain.enums;
+
+/**
+ * Modo de verificação de uma página.
+ * 
+ * <ul>
+ *   <li>BROWSER: renderização completa no Playwright (Web Vitals, assets, console)</li>
+ *   <li>HTTP: apenas requisição HTTP do documento (status, TTFB, tempo total, bytes)</li>
+ * </ul>
+ */
+public enum CheckMode {
+    BROWSER,
+    HTTP
+}
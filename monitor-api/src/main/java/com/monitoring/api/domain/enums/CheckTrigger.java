@@ -0,0 +1,21 @@
+package com.monitoring.api.domain.enums;
+
+/**
+ * Origem de um check publicado em monitor.run-check.priority, com a prioridade da
+ * mensagem na fila (maior é consumida antes).
+ */
+public enum CheckTrigger {
+    MANUAL(9),
+    RECHECK(5),
+    SCHEDULED(1);
+
+    private final int priority;
+
+    CheckTrigger(int priority) {
+        this.priority = priority;
+    }
+
+    public int priority() {
+        return priority;
+    }
+}
@@ -0,0 +1,32 @@
+package com.monitoring.api.domain.enums;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Granularidade das tabelas de rollup (site_rollups, page_rollups).
+ */
+public enum RollupGranularity {
+    HOUR,
+    DAY;
+
+    /**
+     * Início do bucket que contém o timestamp (equivalente a date_trunc no PostgreSQL).
+     */
+    public LocalDateTime truncate(LocalDateTime timestamp) {
+        return switch (this) {
+            case HOUR -> timestamp.truncatedTo(ChronoUnit.HOURS);
+            case DAY -> timestamp.truncatedTo(ChronoUnit.DAYS);
+        };
+    }
+
+    /**
+     * Início do bucket seguinte ao que contém o timestamp.
+     */
+    public LocalDateTime nextBucket(LocalDateTime timestamp) {
+        return switch (this) {
+            case HOUR -> truncate(timestamp).plusHours(1);
+            case DAY -> truncate(timestamp).plusDays(1);
+        };
+    }
+}
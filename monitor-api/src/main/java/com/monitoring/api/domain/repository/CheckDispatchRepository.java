@@ -0,0 +1,77 @@
+package com.monitoring.api.domain.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Acesso à tabela check_dispatches (checks publicados ainda sem Run ingerida).
+ *
+ * <p>Compartilhada entre réplicas: a réplica que publica o check grava a linha e a
+ * ingestão da Run, em qualquer réplica, a remove. Horários usam o relógio do banco.</p>
+ */
+@Repository
+public class CheckDispatchRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public CheckDispatchRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Registra os sites como em andamento até {@code now() + timeoutSeconds}.
+     */
+    public void markDispatched(List<Long> siteIds, int timeoutSeconds) {
+        if (siteIds.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.update(con -> {
+            PreparedStatement ps = con.prepareStatement("""
+                INSERT INTO check_dispatches (site_id, dispatched_at, expires_at)
+                SELECT id, now(), now() + ? * INTERVAL '1 second' FROM unnest(?::bigint[]) AS t(id)
+                ON CONFLICT (site_id) DO UPDATE SET
+                    dispatched_at = EXCLUDED.dispatched_at,
+                    expires_at = EXCLUDED.expires_at
+                """);
+            ps.setInt(1, timeoutSeconds);
+            ps.setArray(2, con.createArrayOf("bigint", siteIds.toArray()));
+            return ps;
+        });
+    }
+
+    /**
+     * @return Sites entre os informados com check em andamento e ainda não expirado
+     */
+    public Set<Long> findOutstanding(List<Long> siteIds) {
+        Set<Long> outstanding = new HashSet<>();
+        if (siteIds.isEmpty()) {
+            return outstanding;
+        }
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(
+                "SELECT site_id FROM check_dispatches WHERE site_id = ANY(?) AND expires_at > now()");
+            ps.setArray(1, con.createArrayOf("bigint", siteIds.toArray()));
+            return ps;
+        }, rs -> {
+            outstanding.add(rs.getLong("site_id"));
+        });
+        return outstanding;
+    }
+
+    public void clear(Collection<Long> siteIds) {
+        if (siteIds.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.update(con -> {
+            PreparedStatement ps = con.prepareStatement("DELETE FROM check_dispatches WHERE site_id = ANY(?)");
+            ps.setArray(1, con.createArrayOf("bigint", siteIds.stream().sorted().toArray()));
+            return ps;
+        });
+    }
+}
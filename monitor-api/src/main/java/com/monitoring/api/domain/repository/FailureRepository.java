@@ -1,6 +1,7 @@
 package com.monitoring.api.domain.repository;
 
 import com.monitoring.api.domain.entity.Failure;
+import com.monitoring.api.domain.enums.FailureType;
 import com.monitoring.api.domain.enums.Severity;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
@@ -15,12 +16,33 @@ public interface FailureRepository extends JpaRepository<Failure, Long> {
     
     List<Failure> findByRunId(Long runId);
     
+    /**
+     * Failures de várias runs em uma query, com o nome da página.
+     * 
+     * @param createdFrom Limite inferior de created_at (poda de partições); o started_at
+     *                    mais antigo das runs serve, pois created_at é o horário de ingestão
+     */
+    @Query("""
+        SELECT f.run.id AS runId, f.id AS id, f.severity AS severity, f.type AS type,
+               f.message AS message, f.url AS url, p.name AS pageName
+        FROM Failure f
+        LEFT JOIN f.page p
+        WHERE f.run.id IN :runIds
+        AND f.createdAt >= :createdFrom
+        ORDER BY f.id
+    """)
+    List<FailureView> findByRunIds(
+        @Param("runIds") List<Long> runIds,
+        @Param("createdFrom") LocalDateTime createdFrom
+    );
+    
     @Query("""
         SELECT f.severity, COUNT(f)
         FROM Failure f
         JOIN f.run r
         WHERE r.site.id = :siteId
         AND r.startedAt >= :from
+        AND f.createdAt >= :from
         GROUP BY f.severity
     """)
     List<Object[]> countBySeveritySince(
@@ -34,6 +56,7 @@ public interface FailureRepository extends JpaRepository<Failure, Long> {
         JOIN runs r ON r.id = f.run_id
         WHERE r.site_id = :siteId
         AND r.started_at >= :from
+        AND f.created_at >= :from
         GROUP BY f.type, f.message
         ORDER BY cnt DESC
         LIMIT :limit
@@ -43,4 +66,14 @@ public interface FailureRepository extends JpaRepository<Failure, Long> {
         @Param("from") LocalDateTime from,
         @Param("limit") int limit
     );
+    
+    interface FailureView {
+        Long getRunId();
+        Long getId();
+        Severity getSeverity();
+        FailureType getType();
+        String getMessage();
+        String getUrl();
+        String getPageName();
+    }
 }
@@ -20,6 +20,7 @@ public interface PageResultRepository extends JpaRepository<PageResult, Long> {
         WHERE r.site.id = :siteId
         AND r.startedAt >= :from
         AND r.startedAt < :to
+        AND pr.createdAt >= :from
         ORDER BY r.startedAt
     """)
     List<PageResult> findPageResultsInRange(
@@ -28,6 +29,31 @@ public interface PageResultRepository extends JpaRepository<PageResult, Long> {
         @Param("to") LocalDateTime to
     );
     
+    /**
+     * Load time agrupado em buckets de 5 minutos de {@code runs.started_at}:
+     * [bucket, avg, p95 (nearest-rank), max].
+     */
+    @Query(value = """
+        SELECT date_bin('5 minutes', r.started_at, TIMESTAMP '2000-01-01') AS bucket,
+               AVG(pr.load_ms),
+               percentile_disc(0.95) WITHIN GROUP (ORDER BY pr.load_ms),
+               MAX(pr.load_ms)
+        FROM page_results pr
+        JOIN runs r ON r.id = pr.run_id
+        WHERE r.site_id = :siteId
+        AND r.started_at >= :from
+        AND r.started_at < :to
+        AND pr.created_at >= :from
+        AND pr.load_ms IS NOT NULL
+        GROUP BY bucket
+        ORDER BY bucket
+    """, nativeQuery = true)
+    List<Object[]> findLoadTimeBuckets(
+        @Param("siteId") Long siteId,
+        @Param("from") LocalDateTime from,
+        @Param("to") LocalDateTime to
+    );
+    
     @Query(value = """
         SELECT p.name, AVG(pr.load_ms) as avg_load
         FROM page_results pr
@@ -35,6 +61,7 @@ public interface PageResultRepository extends JpaRepository<PageResult, Long> {
         JOIN runs r ON r.id = pr.run_id
         WHERE r.site_id = :siteId
         AND r.started_at >= :from
+        AND pr.created_at >= :from
         GROUP BY p.id, p.name
         ORDER BY avg_load DESC
         LIMIT :limit
@@ -22,6 +22,7 @@ public interface RequestErrorRepository extends JpaRepository<RequestError, Long
         WHERE r.site_id = :siteId
         AND re.status = 404
         AND r.started_at >= :from
+        AND re.created_at >= :from
         GROUP BY re.url
         ORDER BY cnt DESC
         LIMIT :limit
@@ -0,0 +1,327 @@
+package com.monitoring.api.domain.repository;
+
+import com.monitoring.api.domain.enums.RollupGranularity;
+import com.monitoring.api.domain.rollup.LatencySketch;
+import com.monitoring.api.domain.rollup.PageRollup;
+import com.monitoring.api.domain.rollup.SiteRollup;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Acesso às tabelas de rollup (site_rollups, page_rollups).
+ *
+ * <p>Escrita por upsert aditivo: a ingestão calcula os deltas de um lote de Runs e
+ * cada linha é somada à existente ({@code ON CONFLICT DO UPDATE}). Os deltas devem vir
+ * ordenados pela chave para que ingestões concorrentes travem as linhas na mesma ordem.</p>
+ *
+ * <p>Os sketches de latência (load_sketch, ttfb_sketch) não têm soma em SQL: depois do
+ * upsert, que já trava as linhas até o commit, os sketches atuais são lidos, mesclados
+ * com os do delta em memória e regravados em lote.</p>
+ *
+ * <p>Leitura por range de buckets: o custo depende apenas do tamanho da janela
+ * (ex: 30d = 720 linhas HOUR por site), não do histórico armazenado.</p>
+ */
+@Repository
+public class RollupRepository {
+
+    private static final String UPSERT_SITE = """
+        INSERT INTO site_rollups (site_id, granularity, bucket_start,
+                                  runs_total, runs_success, runs_warning, runs_failed,
+                                  failures_critical, failures_major, failures_minor,
+                                  load_count, load_sum, load_max, ttfb_count, ttfb_sum, ttfb_max)
+        VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+        ON CONFLICT (site_id, granularity, bucket_start) DO UPDATE SET
+            runs_total = site_rollups.runs_total + EXCLUDED.runs_total,
+            runs_success = site_rollups.runs_success + EXCLUDED.runs_success,
+            runs_warning = site_rollups.runs_warning + EXCLUDED.runs_warning,
+            runs_failed = site_rollups.runs_failed + EXCLUDED.runs_failed,
+            failures_critical = site_rollups.failures_critical + EXCLUDED.failures_critical,
+            failures_major = site_rollups.failures_major + EXCLUDED.failures_major,
+            failures_minor = site_rollups.failures_minor + EXCLUDED.failures_minor,
+            load_count = site_rollups.load_count + EXCLUDED.load_count,
+            load_sum = site_rollups.load_sum + EXCLUDED.load_sum,
+            load_max = GREATEST(site_rollups.load_max, EXCLUDED.load_max),
+            ttfb_count = site_rollups.ttfb_count + EXCLUDED.ttfb_count,
+            ttfb_sum = site_rollups.ttfb_sum + EXCLUDED.ttfb_sum,
+            ttfb_max = GREATEST(site_rollups.ttfb_max, EXCLUDED.ttfb_max)
+        """;
+
+    private static final String UPSERT_PAGE = """
+        INSERT INTO page_rollups (page_id, site_id, granularity, bucket_start, samples,
+                                  load_count, load_sum, load_max, ttfb_count, ttfb_sum, ttfb_max,
+                                  failures_critical, failures_major, failures_minor)
+        VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+        ON CONFLICT (page_id, granularity, bucket_start) DO UPDATE SET
+            samples = page_rollups.samples + EXCLUDED.samples,
+            load_count = page_rollups.load_count + EXCLUDED.load_count,
+            load_sum = page_rollups.load_sum + EXCLUDED.load_sum,
+            load_max = GREATEST(page_rollups.load_max, EXCLUDED.load_max),
+            ttfb_count = page_rollups.ttfb_count + EXCLUDED.ttfb_count,
+            ttfb_sum = page_rollups.ttfb_sum + EXCLUDED.ttfb_sum,
+            ttfb_max = GREATEST(page_rollups.ttfb_max, EXCLUDED.ttfb_max),
+            failures_critical = page_rollups.failures_critical + EXCLUDED.failures_critical,
+            failures_major = page_rollups.failures_major + EXCLUDED.failures_major,
+            failures_minor = page_rollups.failures_minor + EXCLUDED.failures_minor
+        """;
+
+    private static final RowMapper<SiteRollup> SITE_ROLLUP_MAPPER = (rs, rowNum) -> new SiteRollup(
+        rs.getLong("site_id"),
+        RollupGranularity.valueOf(rs.getString("granularity")),
+        rs.getTimestamp("bucket_start").toLocalDateTime(),
+        rs.getLong("runs_total"),
+        rs.getLong("runs_success"),
+        rs.getLong("runs_warning"),
+        rs.getLong("runs_failed"),
+        rs.getLong("failures_critical"),
+        rs.getLong("failures_major"),
+        rs.getLong("failures_minor"),
+        rs.getLong("load_count"),
+        rs.getLong("load_sum"),
+        getInteger(rs, "load_max"),
+        rs.getLong("ttfb_count"),
+        rs.getLong("ttfb_sum"),
+        getInteger(rs, "ttfb_max"),
+        LatencySketch.fromBytes(rs.getBytes("load_sketch")),
+        LatencySketch.fromBytes(rs.getBytes("ttfb_sketch"))
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public RollupRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void upsertSiteRollups(List<SiteRollup> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(UPSERT_SITE, deltas, deltas.size(), (ps, d) -> {
+            ps.setLong(1, d.siteId());
+            ps.setString(2, d.granularity().name());
+            ps.setTimestamp(3, Timestamp.valueOf(d.bucketStart()));
+            ps.setLong(4, d.runsTotal());
+            ps.setLong(5, d.runsSuccess());
+            ps.setLong(6, d.runsWarning());
+            ps.setLong(7, d.runsFailed());
+            ps.setLong(8, d.failuresCritical());
+            ps.setLong(9, d.failuresMajor());
+            ps.setLong(10, d.failuresMinor());
+            ps.setLong(11, d.loadCount());
+            ps.setLong(12, d.loadSum());
+            setInteger(ps, 13, d.loadMax());
+            ps.setLong(14, d.ttfbCount());
+            ps.setLong(15, d.ttfbSum());
+            setInteger(ps, 16, d.ttfbMax());
+        });
+        
+        mergeSketches("site_rollups", "site_id", deltas.stream()
+            .map(d -> new SketchDelta(d.siteId(), d.granularity(), d.bucketStart(), d.loadSketch(), d.ttfbSketch()))
+            .toList());
+    }
+
+    public void upsertPageRollups(List<PageRollup> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(UPSERT_PAGE, deltas, deltas.size(), (ps, d) -> {
+            ps.setLong(1, d.pageId());
+            ps.setLong(2, d.siteId());
+            ps.setString(3, d.granularity().name());
+            ps.setTimestamp(4, Timestamp.valueOf(d.bucketStart()));
+            ps.setLong(5, d.samples());
+            ps.setLong(6, d.loadCount());
+            ps.setLong(7, d.loadSum());
+            setInteger(ps, 8, d.loadMax());
+            ps.setLong(9, d.ttfbCount());
+            ps.setLong(10, d.ttfbSum());
+            setInteger(ps, 11, d.ttfbMax());
+            ps.setLong(12, d.failuresCritical());
+            ps.setLong(13, d.failuresMajor());
+            ps.setLong(14, d.failuresMinor());
+        });
+        
+        mergeSketches("page_rollups", "page_id", deltas.stream()
+            .map(d -> new SketchDelta(d.pageId(), d.granularity(), d.bucketStart(), d.loadSketch(), d.ttfbSketch()))
+            .toList());
+    }
+
+    /**
+     * Rollups do site com bucket_start em [from, to), ordenados por bucket.
+     *
+     * @param from Início da janela (truncado para o bucket que o contém)
+     */
+    public List<SiteRollup> findSiteRollups(
+            Long siteId, RollupGranularity granularity, LocalDateTime from, LocalDateTime to) {
+        return jdbcTemplate.query("""
+            SELECT * FROM site_rollups
+            WHERE site_id = ? AND granularity = ?
+            AND bucket_start >= ? AND bucket_start < ?
+            ORDER BY bucket_start
+            """,
+            SITE_ROLLUP_MAPPER,
+            siteId, granularity.name(),
+            Timestamp.valueOf(granularity.truncate(from)), Timestamp.valueOf(to));
+    }
+
+    /**
+     * Contadores de runs e falhas do site com started_at em [from, to), calculados direto
+     * da tabela runs, para trechos menores que um bucket. Sem latência nem sketches.
+     *
+     * @return Agregado posicionado no bucket que contém {@code from}
+     */
+    public SiteRollup findRunTotals(
+            Long siteId, RollupGranularity granularity, LocalDateTime from, LocalDateTime to) {
+        return jdbcTemplate.queryForObject("""
+            SELECT count(*) AS runs_total,
+                   count(*) FILTER (WHERE status = 'SUCCESS') AS runs_success,
+                   count(*) FILTER (WHERE status = 'WARNING') AS runs_warning,
+                   count(*) FILTER (WHERE status = 'FAILED') AS runs_failed,
+                   coalesce(sum(critical_count), 0) AS failures_critical,
+                   coalesce(sum(major_count), 0) AS failures_major,
+                   coalesce(sum(minor_count), 0) AS failures_minor
+            FROM runs
+            WHERE site_id = ? AND started_at >= ? AND started_at < ?
+            """,
+            (rs, rowNum) -> new SiteRollup(
+                siteId,
+                granularity,
+                granularity.truncate(from),
+                rs.getLong("runs_total"),
+                rs.getLong("runs_success"),
+                rs.getLong("runs_warning"),
+                rs.getLong("runs_failed"),
+                rs.getLong("failures_critical"),
+                rs.getLong("failures_major"),
+                rs.getLong("failures_minor"),
+                0, 0, null, 0, 0, null, null, null
+            ),
+            siteId, Timestamp.valueOf(from), Timestamp.valueOf(to));
+    }
+
+    /**
+     * Totais de cada site habilitado em [from, to): uma única consulta; as linhas são
+     * somadas (contadores e sketches) à medida que chegam, sem materializar a janela.
+     *
+     * @param from Início da janela (truncado para o bucket que o contém)
+     * @return Totais por siteId; sites sem rollups na janela ficam ausentes
+     */
+    public Map<Long, SiteRollup> findEnabledSiteTotals(
+            RollupGranularity granularity, LocalDateTime from, LocalDateTime to) {
+        Map<Long, SiteRollup> totals = new HashMap<>();
+        jdbcTemplate.query("""
+            SELECT r.* FROM site_rollups r
+            JOIN sites s ON s.id = r.site_id
+            WHERE s.enabled = true AND r.granularity = ?
+            AND r.bucket_start >= ? AND r.bucket_start < ?
+            """,
+            rs -> {
+                SiteRollup row = SITE_ROLLUP_MAPPER.mapRow(rs, 0);
+                totals.merge(row.siteId(), row, SiteRollup::plus);
+            },
+            granularity.name(), Timestamp.valueOf(granularity.truncate(from)), Timestamp.valueOf(to));
+        return totals;
+    }
+
+    /**
+     * Mescla os sketches dos deltas nas linhas já existentes (criadas pelo upsert).
+     * Deve rodar na mesma transação do upsert, que mantém as linhas travadas.
+     */
+    private void mergeSketches(String table, String idColumn, List<SketchDelta> deltas) {
+        List<SketchDelta> withSamples = deltas.stream()
+            .filter(d -> !isEmpty(d.loadSketch()) || !isEmpty(d.ttfbSketch()))
+            .toList();
+        if (withSamples.isEmpty()) {
+            return;
+        }
+        
+        Long[] ids = new Long[withSamples.size()];
+        String[] granularities = new String[withSamples.size()];
+        Timestamp[] buckets = new Timestamp[withSamples.size()];
+        for (int i = 0; i < withSamples.size(); i++) {
+            SketchDelta d = withSamples.get(i);
+            ids[i] = d.id();
+            granularities[i] = d.granularity().name();
+            buckets[i] = Timestamp.valueOf(d.bucketStart());
+        }
+        
+        Map<SketchKey, LatencySketch[]> current = new HashMap<>();
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(
+                "SELECT t." + idColumn + " AS id, t.granularity, t.bucket_start, t.load_sketch, t.ttfb_sketch"
+                + " FROM " + table + " t"
+                + " JOIN unnest(?::bigint[], ?::varchar[], ?::timestamp[]) AS k(id, granularity, bucket_start)"
+                + " ON t." + idColumn + " = k.id AND t.granularity = k.granularity"
+                + " AND t.bucket_start = k.bucket_start");
+            ps.setArray(1, con.createArrayOf("bigint", ids));
+            ps.setArray(2, con.createArrayOf("varchar", granularities));
+            ps.setArray(3, con.createArrayOf("timestamp", buckets));
+            return ps;
+        }, rs -> {
+            current.put(
+                new SketchKey(rs.getLong("id"), rs.getString("granularity"),
+                    rs.getTimestamp("bucket_start").toLocalDateTime()),
+                new LatencySketch[] {
+                    LatencySketch.fromBytes(rs.getBytes("load_sketch")),
+                    LatencySketch.fromBytes(rs.getBytes("ttfb_sketch"))
+                });
+        });
+        
+        String updateSql = "UPDATE " + table + " SET load_sketch = ?, ttfb_sketch = ?"
+            + " WHERE " + idColumn + " = ? AND granularity = ? AND bucket_start = ?";
+        jdbcTemplate.batchUpdate(updateSql, withSamples, withSamples.size(), (ps, d) -> {
+            LatencySketch[] sketches = current.getOrDefault(
+                new SketchKey(d.id(), d.granularity().name(), d.bucketStart()),
+                new LatencySketch[] { new LatencySketch(), new LatencySketch() });
+            sketches[0].merge(d.loadSketch());
+            sketches[1].merge(d.ttfbSketch());
+            
+            setSketch(ps, 1, sketches[0]);
+            setSketch(ps, 2, sketches[1]);
+            ps.setLong(3, d.id());
+            ps.setString(4, d.granularity().name());
+            ps.setTimestamp(5, Timestamp.valueOf(d.bucketStart()));
+        });
+    }
+    
+    private static boolean isEmpty(LatencySketch sketch) {
+        return sketch == null || sketch.isEmpty();
+    }
+    
+    private static void setSketch(PreparedStatement ps, int index, LatencySketch sketch) throws SQLException {
+        if (sketch.isEmpty()) {
+            ps.setNull(index, Types.BINARY);
+        } else {
+            ps.setBytes(index, sketch.toBytes());
+        }
+    }
+    
+    private static Integer getInteger(ResultSet rs, String column) throws SQLException {
+        int value = rs.getInt(column);
+        return rs.wasNull() ? null : value;
+    }
+
+    private static void setInteger(PreparedStatement ps, int index, Integer value) throws SQLException {
+        if (value != null) {
+            ps.setInt(index, value);
+        } else {
+            ps.setNull(index, Types.INTEGER);
+        }
+    }
+    
+    private record SketchDelta(
+        long id, RollupGranularity granularity, LocalDateTime bucketStart,
+        LatencySketch loadSketch, LatencySketch ttfbSketch) {}
+    
+    private record SketchKey(long id, String granularity, LocalDateTime bucketStart) {}
+}
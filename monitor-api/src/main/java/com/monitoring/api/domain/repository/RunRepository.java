@@ -2,6 +2,7 @@ package com.monitoring.api.domain.repository;
 
 import com.monitoring.api.domain.entity.Run;
 import com.monitoring.api.domain.enums.RunStatus;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -31,6 +32,53 @@ public interface RunRepository extends JpaRepository<Run, Long> {
         @Param("to") LocalDateTime to
     );
     
+    /**
+     * Página keyset de runs em [from, to), ordenada por (started_at, id) DESC, a partir
+     * do cursor exclusivo (cursorStartedAt, cursorId). Projeção sem coleções.
+     * Primeira página: cursorStartedAt = to.
+     */
+    @Query("""
+        SELECT r.id AS id, r.startedAt AS startedAt, r.endedAt AS endedAt, r.status AS status,
+               r.criticalCount AS criticalCount, r.majorCount AS majorCount,
+               r.minorCount AS minorCount, r.summary AS summary
+        FROM Run r
+        WHERE r.site.id = :siteId
+        AND r.startedAt >= :from
+        AND r.startedAt < :to
+        AND (r.startedAt < :cursorStartedAt
+             OR (r.startedAt = :cursorStartedAt AND r.id < :cursorId))
+        ORDER BY r.startedAt DESC, r.id DESC
+    """)
+    List<RunSummaryView> findRunPage(
+        @Param("siteId") Long siteId,
+        @Param("from") LocalDateTime from,
+        @Param("to") LocalDateTime to,
+        @Param("cursorStartedAt") LocalDateTime cursorStartedAt,
+        @Param("cursorId") Long cursorId,
+        Pageable pageable
+    );
+    
+    /**
+     * Erros (critical + major) agrupados em buckets de 5 minutos:
+     * [bucket, soma, máximo por run].
+     */
+    @Query(value = """
+        SELECT date_bin('5 minutes', started_at, TIMESTAMP '2000-01-01') AS bucket,
+               SUM(critical_count + major_count),
+               MAX(critical_count + major_count)
+        FROM runs
+        WHERE site_id = :siteId
+        AND started_at >= :from
+        AND started_at < :to
+        GROUP BY bucket
+        ORDER BY bucket
+    """, nativeQuery = true)
+    List<Object[]> findErrorBuckets(
+        @Param("siteId") Long siteId,
+        @Param("from") LocalDateTime from,
+        @Param("to") LocalDateTime to
+    );
+    
     @Query("""
         SELECT COUNT(r) as total,
                SUM(CASE WHEN r.status = 'SUCCESS' THEN 1 ELSE 0 END) as success
@@ -48,4 +96,15 @@ public interface RunRepository extends JpaRepository<Run, Long> {
         GROUP BY r.status
     """)
     List<Object[]> countByStatusSince(@Param("siteId") Long siteId, @Param("from") LocalDateTime from);
+    
+    interface RunSummaryView {
+        Long getId();
+        LocalDateTime getStartedAt();
+        LocalDateTime getEndedAt();
+        RunStatus getStatus();
+        Integer getCriticalCount();
+        Integer getMajorCount();
+        Integer getMinorCount();
+        String getSummary();
+    }
 }
@@ -0,0 +1,99 @@
+package com.monitoring.api.domain.repository;
+
+import com.monitoring.api.domain.enums.RunStatus;
+import com.monitoring.api.domain.status.SiteStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Acesso à tabela site_status (última Run por site).
+ *
+ * <p>O upsert só substitui a linha se a Run recebida for igual ou mais recente
+ * ({@code started_at}), então ingestões fora de ordem não regridem o estado.</p>
+ */
+@Repository
+public class SiteStatusRepository {
+
+    private static final String UPSERT = """
+        INSERT INTO site_status (site_id, last_run_id, last_started_at, last_status,
+                                 critical_count, major_count, minor_count, consecutive_successes, updated_at)
+        VALUES (?, ?, ?, ?, ?, ?, ?, ?, CURRENT_TIMESTAMP)
+        ON CONFLICT (site_id) DO UPDATE SET
+            last_run_id = EXCLUDED.last_run_id,
+            last_started_at = EXCLUDED.last_started_at,
+            last_status = EXCLUDED.last_status,
+            critical_count = EXCLUDED.critical_count,
+            major_count = EXCLUDED.major_count,
+            minor_count = EXCLUDED.minor_count,
+            consecutive_successes = CASE WHEN ?
+                THEN site_status.consecutive_successes + EXCLUDED.consecutive_successes
+                ELSE EXCLUDED.consecutive_successes END,
+            updated_at = EXCLUDED.updated_at
+        WHERE site_status.last_started_at <= EXCLUDED.last_started_at
+        """;
+
+    private static final RowMapper<SiteStatus> SITE_STATUS_MAPPER = (rs, rowNum) -> new SiteStatus(
+        rs.getLong("site_id"),
+        rs.getLong("last_run_id"),
+        rs.getTimestamp("last_started_at").toLocalDateTime(),
+        RunStatus.valueOf(rs.getString("last_status")),
+        rs.getInt("critical_count"),
+        rs.getInt("major_count"),
+        rs.getInt("minor_count"),
+        rs.getInt("consecutive_successes")
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public SiteStatusRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * @param statuses No máximo um por site, ordenados por siteId; consecutiveSuccesses é a
+     *                 sequência de SUCCESS do lote
+     * @param continuingStreaks Sites cujo lote só tem SUCCESS: a sequência do lote é somada
+     *                          à armazenada em vez de substituí-la
+     */
+    public void upsert(List<SiteStatus> statuses, Set<Long> continuingStreaks) {
+        if (statuses.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(UPSERT, statuses, statuses.size(), (ps, s) -> {
+            ps.setLong(1, s.siteId());
+            ps.setLong(2, s.lastRunId());
+            ps.setTimestamp(3, Timestamp.valueOf(s.lastStartedAt()));
+            ps.setString(4, s.lastStatus().name());
+            ps.setInt(5, s.criticalCount());
+            ps.setInt(6, s.majorCount());
+            ps.setInt(7, s.minorCount());
+            ps.setInt(8, s.consecutiveSuccesses());
+            ps.setBoolean(9, continuingStreaks.contains(s.siteId()));
+        });
+    }
+
+    public Optional<SiteStatus> findBySiteId(Long siteId) {
+        return jdbcTemplate.query("SELECT * FROM site_status WHERE site_id = ?", SITE_STATUS_MAPPER, siteId)
+            .stream()
+            .findFirst();
+    }
+
+    public List<SiteStatus> findBySiteIds(List<Long> siteIds) {
+        return jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement("SELECT * FROM site_status WHERE site_id = ANY(?)");
+            ps.setArray(1, con.createArrayOf("bigint", siteIds.toArray()));
+            return ps;
+        }, SITE_STATUS_MAPPER);
+    }
+
+    public List<SiteStatus> findAll() {
+        return jdbcTemplate.query("SELECT * FROM site_status", SITE_STATUS_MAPPER);
+    }
+}
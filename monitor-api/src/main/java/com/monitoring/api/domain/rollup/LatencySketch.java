@@ -0,0 +1,178 @@
+package com.monitoring.api.domain.rollup;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Sketch de percentis mesclável para latências em milissegundos (estilo DDSketch).
+ *
+ * <p>Cada valor {@code v > 0} é contado no bucket logarítmico
+ * {@code i = ceil(log(v) / log(γ))}, com {@code γ = (1 + α) / (1 - α)}, e o bucket é
+ * representado pelo valor {@code 2γ^i / (γ + 1)}. Valores {@code <= 0} têm contador
+ * próprio. Dois sketches se mesclam somando os contadores dos mesmos buckets, sem
+ * perda adicional de precisão.</p>
+ *
+ * <p><b>Precisão:</b> com α = 1%, o quantil retornado está a no máximo 1% (relativo)
+ * do valor exato do percentil por nearest-rank ({@code sorted[ceil(n * q) - 1]}, a mesma
+ * definição usada antes sobre a lista ordenada), mais 0,5 ms do arredondamento para ms
+ * inteiros, para qualquer distribuição e qualquer número de merges. Ex: P95 exato de
+ * 2.000 ms → retornado entre 1.980 e 2.020 ms. O limite é verificado contra o cálculo
+ * exato por {@code LatencySketchTest} (várias distribuições, até 5.000 amostras, sketches
+ * mesclados e re-serializados).</p>
+ *
+ * <p><b>Tamanho:</b> latências de 1 ms a 10 min ocupam no máximo ~660 buckets; na prática
+ * uma página ocupa algumas dezenas. A serialização é esparsa (índice delta + contador em
+ * varint), tipicamente poucas centenas de bytes por bucket de rollup.</p>
+ *
+ * <p>Não é thread-safe.</p>
+ */
+public final class LatencySketch {
+
+    public static final double RELATIVE_ACCURACY = 0.01;
+
+    private static final double GAMMA = (1 + RELATIVE_ACCURACY) / (1 - RELATIVE_ACCURACY);
+    private static final double LOG_GAMMA = Math.log(GAMMA);
+    private static final byte FORMAT_VERSION = 1;
+
+    private final TreeMap<Integer, Long> bins = new TreeMap<>();
+    private long zeroCount;
+    private long count;
+
+    public void add(int valueMs) {
+        if (valueMs <= 0) {
+            zeroCount++;
+        } else {
+            bins.merge(index(valueMs), 1L, Long::sum);
+        }
+        count++;
+    }
+
+    public void merge(LatencySketch other) {
+        if (other == null) {
+            return;
+        }
+        other.bins.forEach((index, binCount) -> bins.merge(index, binCount, Long::sum));
+        zeroCount += other.zeroCount;
+        count += other.count;
+    }
+
+    public long count() {
+        return count;
+    }
+
+    public boolean isEmpty() {
+        return count == 0;
+    }
+
+    /**
+     * Quantil por nearest-rank.
+     *
+     * @param q Quantil entre 0 e 1 (ex: 0.95)
+     * @return Latência estimada em ms, ou null se o sketch estiver vazio
+     */
+    public Integer quantile(double q) {
+        if (count == 0) {
+            return null;
+        }
+
+        long rank = Math.max(0, Math.min((long) Math.ceil(count * q) - 1, count - 1));
+
+        long cumulative = zeroCount;
+        if (rank < cumulative) {
+            return 0;
+        }
+        for (Map.Entry<Integer, Long> bin : bins.entrySet()) {
+            cumulative += bin.getValue();
+            if (rank < cumulative) {
+                return (int) Math.round(value(bin.getKey()));
+            }
+        }
+        return (int) Math.round(value(bins.lastKey()));
+    }
+
+    public LatencySketch copy() {
+        LatencySketch copy = new LatencySketch();
+        copy.merge(this);
+        return copy;
+    }
+
+    /**
+     * Formato: versão, zeroCount, número de buckets e, para cada bucket em ordem,
+     * delta do índice (zigzag) e contador, todos em varint.
+     */
+    public byte[] toBytes() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(16 + bins.size() * 3);
+        out.write(FORMAT_VERSION);
+        writeVarLong(out, zeroCount);
+        writeVarLong(out, bins.size());
+
+        int previous = 0;
+        for (Map.Entry<Integer, Long> bin : bins.entrySet()) {
+            int delta = bin.getKey() - previous;
+            writeVarLong(out, (delta << 1) ^ (delta >> 31));
+            writeVarLong(out, bin.getValue());
+            previous = bin.getKey();
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * @param bytes Sketch serializado; null ou vazio resulta em sketch vazio
+     */
+    public static LatencySketch fromBytes(byte[] bytes) {
+        LatencySketch sketch = new LatencySketch();
+        if (bytes == null || bytes.length == 0) {
+            return sketch;
+        }
+
+        ByteBuffer in = ByteBuffer.wrap(bytes);
+        byte version = in.get();
+        if (version != FORMAT_VERSION) {
+            throw new IllegalArgumentException("Unsupported sketch format: " + version);
+        }
+
+        sketch.zeroCount = readVarLong(in);
+        sketch.count = sketch.zeroCount;
+        long binCount = readVarLong(in);
+
+        int index = 0;
+        for (long i = 0; i < binCount; i++) {
+            int zigzag = (int) readVarLong(in);
+            index += (zigzag >>> 1) ^ -(zigzag & 1);
+            long value = readVarLong(in);
+            sketch.bins.put(index, value);
+            sketch.count += value;
+        }
+        return sketch;
+    }
+
+    private static int index(int valueMs) {
+        return (int) Math.ceil(Math.log(valueMs) / LOG_GAMMA);
+    }
+
+    private static double value(int index) {
+        return 2 * Math.pow(GAMMA, index) / (GAMMA + 1);
+    }
+
+    private static void writeVarLong(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static long readVarLong(ByteBuffer in) {
+        long value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+}
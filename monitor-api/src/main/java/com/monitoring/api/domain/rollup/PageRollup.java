@@ -0,0 +1,55 @@
+package com.monitoring.api.domain.rollup;
+
+import com.monitoring.api.domain.enums.RollupGranularity;
+
+import java.time.LocalDateTime;
+
+/**
+ * Linha de page_rollups: agregados de uma página em um bucket (hora ou dia).
+ */
+public record PageRollup(
+    Long pageId,
+    Long siteId,
+    RollupGranularity granularity,
+    LocalDateTime bucketStart,
+    long samples,
+    long loadCount,
+    long loadSum,
+    Integer loadMax,
+    long ttfbCount,
+    long ttfbSum,
+    Integer ttfbMax,
+    long failuresCritical,
+    long failuresMajor,
+    long failuresMinor,
+    LatencySketch loadSketch,
+    LatencySketch ttfbSketch
+) {
+    /**
+     * Soma dois agregados do mesmo bucket.
+     */
+    public PageRollup plus(PageRollup other) {
+        return new PageRollup(
+            pageId,
+            siteId,
+            granularity,
+            bucketStart,
+            samples + other.samples,
+            loadCount + other.loadCount,
+            loadSum + other.loadSum,
+            RollupMath.max(loadMax, other.loadMax),
+            ttfbCount + other.ttfbCount,
+            ttfbSum + other.ttfbSum,
+            RollupMath.max(ttfbMax, other.ttfbMax),
+            failuresCritical + other.failuresCritical,
+            failuresMajor + other.failuresMajor,
+            failuresMinor + other.failuresMinor,
+            RollupMath.merge(loadSketch, other.loadSketch),
+            RollupMath.merge(ttfbSketch, other.ttfbSketch)
+        );
+    }
+    
+    public Double avgLoadMs() {
+        return loadCount == 0 ? null : (double) loadSum / loadCount;
+    }
+}
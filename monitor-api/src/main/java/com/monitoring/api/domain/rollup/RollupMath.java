@@ -0,0 +1,22 @@
+package com.monitoring.api.domain.rollup;
+
+final class RollupMath {
+    
+    private RollupMath() {
+    }
+    
+    static Integer max(Integer a, Integer b) {
+        if (a == null) return b;
+        if (b == null) return a;
+        return Math.max(a, b);
+    }
+    
+    /**
+     * Novo sketch com a união dos dois; os originais não são alterados.
+     */
+    static LatencySketch merge(LatencySketch a, LatencySketch b) {
+        LatencySketch merged = a == null ? new LatencySketch() : a.copy();
+        merged.merge(b);
+        return merged;
+    }
+}
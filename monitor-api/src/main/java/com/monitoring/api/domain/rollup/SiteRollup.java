@@ -0,0 +1,93 @@
+package com.monitoring.api.domain.rollup;
+
+import com.monitoring.api.domain.enums.RollupGranularity;
+
+import java.time.LocalDateTime;
+
+/**
+ * Linha de site_rollups: agregados de um site em um bucket (hora ou dia).
+ * 
+ * <p>Usado tanto como delta (calculado na ingestão e somado via upsert) quanto
+ * como linha lida para o dashboard. Médias são derivadas de sum / count; percentis
+ * vêm dos sketches de load e TTFB, que se somam como os contadores.</p>
+ */
+public record SiteRollup(
+    Long siteId,
+    RollupGranularity granularity,
+    LocalDateTime bucketStart,
+    long runsTotal,
+    long runsSuccess,
+    long runsWarning,
+    long runsFailed,
+    long failuresCritical,
+    long failuresMajor,
+    long failuresMinor,
+    long loadCount,
+    long loadSum,
+    Integer loadMax,
+    long ttfbCount,
+    long ttfbSum,
+    Integer ttfbMax,
+    LatencySketch loadSketch,
+    LatencySketch ttfbSketch
+) {
+    /**
+     * Soma dois agregados do mesmo bucket.
+     */
+    public SiteRollup plus(SiteRollup other) {
+        return new SiteRollup(
+            siteId,
+            granularity,
+            bucketStart,
+            runsTotal + other.runsTotal,
+            runsSuccess + other.runsSuccess,
+            runsWarning + other.runsWarning,
+            runsFailed + other.runsFailed,
+            failuresCritical + other.failuresCritical,
+            failuresMajor + other.failuresMajor,
+            failuresMinor + other.failuresMinor,
+            loadCount + other.loadCount,
+            loadSum + other.loadSum,
+            RollupMath.max(loadMax, other.loadMax),
+            ttfbCount + other.ttfbCount,
+            ttfbSum + other.ttfbSum,
+            RollupMath.max(ttfbMax, other.ttfbMax),
+            RollupMath.merge(loadSketch, other.loadSketch),
+            RollupMath.merge(ttfbSketch, other.ttfbSketch)
+        );
+    }
+    
+    /**
+     * Reposiciona o agregado em outro bucket (ex: dobrar horas em buckets de 6h).
+     */
+    public SiteRollup withBucketStart(LocalDateTime start) {
+        return new SiteRollup(siteId, granularity, start, runsTotal, runsSuccess, runsWarning, runsFailed,
+            failuresCritical, failuresMajor, failuresMinor, loadCount, loadSum, loadMax,
+            ttfbCount, ttfbSum, ttfbMax, loadSketch, ttfbSketch);
+    }
+    
+    /**
+     * Só a latência do agregado: contadores de runs e falhas zerados (ex: trocar os de um
+     * bucket parcial pelos calculados a partir das runs).
+     */
+    public SiteRollup withoutRunCounts() {
+        return new SiteRollup(siteId, granularity, bucketStart, 0, 0, 0, 0, 0, 0, 0,
+            loadCount, loadSum, loadMax, ttfbCount, ttfbSum, ttfbMax, loadSketch, ttfbSketch);
+    }
+    
+    public Double avgLoadMs() {
+        return loadCount == 0 ? null : (double) loadSum / loadCount;
+    }
+    
+    public Double avgTtfbMs() {
+        return ttfbCount == 0 ? null : (double) ttfbSum / ttfbCount;
+    }
+    
+    public Integer loadPercentile(double q) {
+        return loadSketch == null ? null : loadSketch.quantile(q);
+    }
+    
+    public Integer ttfbPercentile(double q) {
+        return ttfbSketch == null ? null : ttfbSketch.quantile(q);
+    }
+}
@@ -0,0 +1,30 @@
+package com.monitoring.api.domain.status;
+
+import com.monitoring.api.domain.enums.RunStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Linha de site_status: estado da última Run de um site (por started_at).
+ *
+ * @param consecutiveSuccesses Runs SUCCESS seguidas até a última (0 se a última não foi SUCCESS)
+ */
+public record SiteStatus(
+    Long siteId,
+    Long lastRunId,
+    LocalDateTime lastStartedAt,
+    RunStatus lastStatus,
+    int criticalCount,
+    int majorCount,
+    int minorCount,
+    int consecutiveSuccesses
+) {
+    public boolean isNewerThan(SiteStatus other) {
+        return other == null || !lastStartedAt.isBefore(other.lastStartedAt);
+    }
+    
+    public SiteStatus withConsecutiveSuccesses(int streak) {
+        return new SiteStatus(siteId, lastRunId, lastStartedAt, lastStatus,
+            criticalCount, majorCount, minorCount, streak);
+    }
+}
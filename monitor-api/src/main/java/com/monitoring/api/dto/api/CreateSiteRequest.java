@@ -1,5 +1,6 @@
 package com.monitoring.api.dto.api;
 
+import com.monitoring.api.domain.enums.CheckMode;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 
@@ -13,5 +14,7 @@ public record CreateSiteRequest(
     @NotNull(message = "Enabled status is required")
     Boolean enabled,
     
-    Integer frequencySeconds
+    Integer frequencySeconds,
+    
+    CheckMode checkMode
 ) {}
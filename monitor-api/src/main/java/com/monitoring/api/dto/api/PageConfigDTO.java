@@ -3,5 +3,6 @@ package com.monitoring.api.dto.api;
 public record PageConfigDTO(
     Long pageId,
     String name,
-    String path
+    String path,
+    String checkMode
 ) {}
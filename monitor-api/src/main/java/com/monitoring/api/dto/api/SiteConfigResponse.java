@@ -4,5 +4,6 @@ public record SiteConfigResponse(
     Long siteId,
     String name,
     String baseUrl,
+    String checkMode,
     java.util.List<PageConfigDTO> pages
 ) {}
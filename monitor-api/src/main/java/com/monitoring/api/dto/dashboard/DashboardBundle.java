@@ -0,0 +1,14 @@
+package com.monitoring.api.dto.dashboard;
+
+/**
+ * Tudo que o dashboard de um site precisa, em uma resposta.
+ *
+ * @param partial true quando alguma consulta não terminou no prazo
+ */
+public record DashboardBundle(
+    OverviewResponse overview,
+    TimeseriesResponse errors,
+    TimeseriesResponse perf,
+    RunPage recentRuns,
+    boolean partial
+) {}
@@ -2,8 +2,18 @@ package com.monitoring.api.dto.dashboard;
 
 import java.time.LocalDateTime;
 
+/**
+ * Ponto de uma série temporal. Em séries agrupadas, {@code value} é o agregado principal
+ * do bucket (média ou soma); {@code p95} e {@code max} vêm preenchidos quando disponíveis.
+ */
 public record DataPoint(
     LocalDateTime timestamp,
     Double value,
-    String label
-) {}
+    String label,
+    Double p95,
+    Double max
+) {
+    public DataPoint(LocalDateTime timestamp, Double value, String label) {
+        this(timestamp, value, label, null, null);
+    }
+}
@@ -0,0 +1,22 @@
+package com.monitoring.api.dto.dashboard;
+
+import java.util.List;
+
+/**
+ * Página da visão da frota. {@code page} começa em 0.
+ */
+public record FleetPage(
+    List<FleetSiteSummary> sites,
+    int page,
+    int size,
+    int totalSites
+) {
+    /**
+     * Recorta uma página da frota já ordenada.
+     */
+    public static FleetPage slice(List<FleetSiteSummary> fleet, int page, int size) {
+        int from = (int) Math.min((long) page * size, fleet.size());
+        int to = Math.min(from + size, fleet.size());
+        return new FleetPage(fleet.subList(from, to), page, size, fleet.size());
+    }
+}
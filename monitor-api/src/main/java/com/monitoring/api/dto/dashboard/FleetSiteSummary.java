@@ -0,0 +1,17 @@
+package com.monitoring.api.dto.dashboard;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Resumo de um site na visão da frota (status wall).
+ */
+public record FleetSiteSummary(
+    Long siteId,
+    String siteName,
+    String status,
+    Double uptimePercent,
+    Map<String, Integer> issuesBySeverity,
+    Integer p95LoadMs,
+    LocalDateTime lastRunAt
+) {}
@@ -2,6 +2,9 @@ package com.monitoring.api.dto.dashboard;
 
 import java.util.Map;
 
+/**
+ * @param partial true quando alguma consulta não terminou no prazo; os campos dela vêm nulos/vazios
+ */
 public record OverviewResponse(
     Long siteId,
     String siteName,
@@ -9,5 +12,6 @@ public record OverviewResponse(
     Double uptimePercent,
     Map<String, Integer> issuesBySeverity,
     PerformanceMetrics performance,
-    LastRun lastRun
+    LastRun lastRun,
+    boolean partial
 ) {}
@@ -0,0 +1,11 @@
+package com.monitoring.api.dto.dashboard;
+
+import java.util.List;
+
+/**
+ * Página de runs (mais recentes primeiro). {@code nextCursor} é null na última página.
+ */
+public record RunPage(
+    List<RunSummaryDTO> runs,
+    String nextCursor
+) {}
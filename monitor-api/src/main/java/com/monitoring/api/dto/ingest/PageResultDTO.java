@@ -2,6 +2,8 @@ package com.monitoring.api.dto.ingest;
 
 import jakarta.validation.constraints.NotNull;
 
+import java.util.Map;
+
 public record PageResultDTO(
     @NotNull Long pageId,
     String finalUrl,
@@ -9,5 +11,6 @@ public record PageResultDTO(
     Integer domMs,
     Integer loadMs,
     Integer requestsCount,
-    Long totalBytes
+    Long totalBytes,
+    Map<String, Long> bytesByType
 ) {}
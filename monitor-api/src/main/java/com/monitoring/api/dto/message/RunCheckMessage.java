@@ -1,7 +1,10 @@
 package com.monitoring.api.dto.message;
 
+import com.monitoring.api.domain.enums.CheckTrigger;
+
 public record RunCheckMessage(
     Long siteId,
     String siteName,
-    String baseUrl
+    String baseUrl,
+    CheckTrigger triggeredBy
 ) {}
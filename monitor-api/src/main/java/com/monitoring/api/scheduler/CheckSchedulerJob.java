@@ -1,33 +1,33 @@
 package com.monitoring.api.scheduler;
 
 import com.monitoring.api.service.CheckSchedulerService;
+import org.quartz.DisallowConcurrentExecution;
 import org.quartz.Job;
 import org.quartz.JobExecutionContext;
 import org.quartz.JobExecutionException;
 import org.springframework.stereotype.Component;
 
 /**
- * Quartz Job que executa agendamento periódico de checks de sites.
+ * Quartz Job que despacha os checks vencidos de sites.
  * 
- * <p>Este job é disparado pelo Quartz Scheduler a cada minuto (cron: 0 * * * * ?)
- * e delega para CheckSchedulerService a lógica de determinar quais sites devem
- * ser verificados.</p>
+ * <p>Este job é disparado pelo Quartz Scheduler a cada segundo e delega para
+ * CheckSchedulerService, que mantém em memória o próximo horário de check de cada site.
+ * Um tick sem sites vencidos não faz nada (nem consulta o banco).</p>
  * 
  * <p><b>Configuração do Job (QuartzConfig):</b></p>
  * <pre>
- * Trigger: CronTrigger
- * Cron: 0 * * * * ?  (a cada minuto, no segundo 0)
+ * Trigger: SimpleTrigger
+ * Intervalo: 1 segundo
  * Job: CheckSchedulerJob
  * Job Store: RAM (in-memory, não persiste)
  * </pre>
  * 
  * <p><b>Fluxo de Execução:</b></p>
  * <ol>
- *   <li>Quartz dispara execute() a cada minuto</li>
- *   <li>CheckSchedulerService.scheduleChecks() é chamado</li>
- *   <li>Service consulta sites habilitados no banco</li>
- *   <li>Verifica última run de cada site</li>
- *   <li>Se frequencySeconds expirou, publica mensagem RabbitMQ</li>
+ *   <li>Quartz dispara execute() a cada segundo</li>
+ *   <li>CheckSchedulerService.dispatchDueChecks() é chamado</li>
+ *   <li>Sites com horário vencido saem da fila em memória</li>
+ *   <li>Para cada um, publica mensagem RabbitMQ e reagenda</li>
  * </ol>
  * 
  * <p><b>Design Pattern:</b></p>
@@ -37,35 +37,9 @@ import org.springframework.stereotype.Component;
  * - Separation of Concerns: scheduling vs business logic
  * </pre>
  * 
- * <p><b>Injeção de Dependência:</b></p>
- * <ul>
- *   <li>Quartz integra com Spring via AutowiringSpringBeanJobFactory</li>
- *   <li>CheckSchedulerService injetado via construtor</li>
- *   <li>Job é @Component para ser gerenciado pelo Spring</li>
- * </ul>
- * 
- * <p><b>Tratamento de Erros:</b></p>
- * <pre>
- * - Se CheckSchedulerService.scheduleChecks() lançar exceção:
- *   * Quartz registra erro no log
- *   * Próxima execução ocorre normalmente (não interrompe scheduler)
- *   * JobExecutionException pode configurar retry/refire
- * </pre>
- * 
- * <p><b>Performance:</b></p>
- * <ul>
- *   <li>Execução deve ser rápida (< 1s idealmente)</li>
- *   <li>Não bloqueia: apenas publica mensagens assíncronas</li>
- *   <li>Checks reais executam no monitor-runner (desacoplado)</li>
- *   <li>Se execução demorar > 1min, próxima execução espera finalizar</li>
- * </ul>
- * 
- * <p><b>Escalabilidade:</b></p>
- * <ul>
- *   <li>Job Store RAM: não compartilha entre instâncias</li>
- *   <li>Para clusters: usar JDBC Job Store + lock pessimista</li>
- *   <li>Ou: executar scheduler em apenas 1 instância (@Profile)</li>
- * </ul>
+ * <p><b>Concorrência:</b> {@code @DisallowConcurrentExecution}: se um tick demorar
+ * (ex: muitos sites vencidos após um restart), os seguintes aguardam em vez de
+ * sobrepor.</p>
  * 
  * @author Sistema de Monitoramento
  * @version 1.0
@@ -75,6 +49,7 @@ import org.springframework.stereotype.Component;
  * @see com.monitoring.api.config.QuartzConfig
  */
 @Component
+@DisallowConcurrentExecution
 public class CheckSchedulerJob implements Job {
     
     private final CheckSchedulerService checkSchedulerService;
@@ -85,6 +60,6 @@ public class CheckSchedulerJob implements Job {
     
     @Override
     public void execute(JobExecutionContext context) throws JobExecutionException {
-        checkSchedulerService.scheduleChecks();
+        checkSchedulerService.dispatchDueChecks();
     }
 }
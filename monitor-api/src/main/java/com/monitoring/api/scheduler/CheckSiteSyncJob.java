@@ -0,0 +1,24 @@
+package com.monitoring.api.scheduler;
+
+import com.monitoring.api.service.CheckSchedulerService;
+import org.quartz.DisallowConcurrentExecution;
+import org.quartz.Job;
+import org.quartz.JobExecutionContext;
+import org.quartz.JobExecutionException;
+import org.springframework.stereotype.Component;
+
+@Component
+@DisallowConcurrentExecution
+public class CheckSiteSyncJob implements Job {
+    
+    private final CheckSchedulerService checkSchedulerService;
+    
+    public CheckSiteSyncJob(CheckSchedulerService checkSchedulerService) {
+        this.checkSchedulerService = checkSchedulerService;
+    }
+    
+    @Override
+    public void execute(JobExecutionContext context) throws JobExecutionException {
+        checkSchedulerService.syncSites();
+    }
+}
@@ -0,0 +1,28 @@
+package com.monitoring.api.scheduler;
+
+import com.monitoring.api.service.PartitionMaintenanceService;
+import com.monitoring.api.service.scheduling.ClusterJobLock;
+import org.quartz.Job;
+import org.quartz.JobExecutionContext;
+import org.quartz.JobExecutionException;
+import org.springframework.stereotype.Component;
+
+@Component
+public class PartitionMaintenanceJob implements Job {
+    
+    private final PartitionMaintenanceService partitionMaintenanceService;
+    private final ClusterJobLock clusterJobLock;
+    
+    public PartitionMaintenanceJob(
+            PartitionMaintenanceService partitionMaintenanceService,
+            ClusterJobLock clusterJobLock) {
+        this.partitionMaintenanceService = partitionMaintenanceService;
+        this.clusterJobLock = clusterJobLock;
+    }
+    
+    @Override
+    public void execute(JobExecutionContext context) throws JobExecutionException {
+        // Same cron on every replica (in-memory Quartz store): only one runs it
+        clusterJobLock.runExclusively("PartitionMaintenanceJob", partitionMaintenanceService::ensureFuturePartitions);
+    }
+}
@@ -0,0 +1,28 @@
+package com.monitoring.api.scheduler;
+
+import com.monitoring.api.service.RetentionService;
+import com.monitoring.api.service.scheduling.ClusterJobLock;
+import org.quartz.DisallowConcurrentExecution;
+import org.quartz.Job;
+import org.quartz.JobExecutionContext;
+import org.quartz.JobExecutionException;
+import org.springframework.stereotype.Component;
+
+@Component
+@DisallowConcurrentExecution
+public class RetentionJob implements Job {
+    
+    private final RetentionService retentionService;
+    private final ClusterJobLock clusterJobLock;
+    
+    public RetentionJob(RetentionService retentionService, ClusterJobLock clusterJobLock) {
+        this.retentionService = retentionService;
+        this.clusterJobLock = clusterJobLock;
+    }
+    
+    @Override
+    public void execute(JobExecutionContext context) throws JobExecutionException {
+        // Same cron on every replica (in-memory Quartz store): only one runs it
+        clusterJobLock.runExclusively("RetentionJob", retentionService::purgeExpired);
+    }
+}
@@ -0,0 +1,24 @@
+package com.monitoring.api.scheduler;
+
+import com.monitoring.api.service.scheduling.SchedulerMembership;
+import org.quartz.DisallowConcurrentExecution;
+import org.quartz.Job;
+import org.quartz.JobExecutionContext;
+import org.quartz.JobExecutionException;
+import org.springframework.stereotype.Component;
+
+@Component
+@DisallowConcurrentExecution
+public class SchedulerHeartbeatJob implements Job {
+    
+    private final SchedulerMembership schedulerMembership;
+    
+    public SchedulerHeartbeatJob(SchedulerMembership schedulerMembership) {
+        this.schedulerMembership = schedulerMembership;
+    }
+    
+    @Override
+    public void execute(JobExecutionContext context) throws JobExecutionException {
+        schedulerMembership.heartbeat();
+    }
+}
@@ -0,0 +1,28 @@
+package com.monitoring.api.scheduler;
+
+import com.monitoring.api.service.CheckSchedulerService;
+import com.monitoring.api.service.SiteStatusService;
+import org.quartz.DisallowConcurrentExecution;
+import org.quartz.Job;
+import org.quartz.JobExecutionContext;
+import org.quartz.JobExecutionException;
+import org.springframework.stereotype.Component;
+
+@Component
+@DisallowConcurrentExecution
+public class SiteStatusRefreshJob implements Job {
+    
+    private final SiteStatusService siteStatusService;
+    private final CheckSchedulerService checkSchedulerService;
+    
+    public SiteStatusRefreshJob(SiteStatusService siteStatusService, CheckSchedulerService checkSchedulerService) {
+        this.siteStatusService = siteStatusService;
+        this.checkSchedulerService = checkSchedulerService;
+    }
+    
+    @Override
+    public void execute(JobExecutionContext context) throws JobExecutionException {
+        // Health changes from runs ingested elsewhere reach this replica's check intervals
+        checkSchedulerService.retime(siteStatusService.refresh());
+    }
+}
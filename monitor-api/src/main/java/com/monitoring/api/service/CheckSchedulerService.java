@@ -1,110 +1,154 @@
 package com.monitoring.api.service;
 
 import com.monitoring.api.config.RabbitMQConfig;
+import com.monitoring.api.domain.entity.Run;
 import com.monitoring.api.domain.entity.Site;
+import com.monitoring.api.domain.enums.CheckTrigger;
+import com.monitoring.api.domain.repository.CheckDispatchRepository;
 import com.monitoring.api.domain.repository.SiteRepository;
+import com.monitoring.api.domain.status.SiteStatus;
 import com.monitoring.api.dto.message.RunCheckMessage;
+import com.monitoring.api.service.scheduling.AdaptiveFrequencyPolicy;
+import com.monitoring.api.service.scheduling.SchedulerMembership;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Service responsável por agendar checks automáticos baseados em frequência configurada.
  * 
- * <p>Este service é invocado pelo CheckSchedulerJob (Quartz) a cada minuto e determina
- * quais sites devem executar checks baseado em:</p>
- * <ul>
- *   <li>Site habilitado (enabled = true)</li>
- *   <li>Frequência configurada (frequencySeconds)</li>
- *   <li>Timestamp da última run</li>
- * </ul>
+ * <p>Mantém em memória uma fila de prioridade com o próximo horário de check de cada
+ * site habilitado. O CheckSchedulerJob (Quartz) chama {@link #dispatchDueChecks()} a cada
+ * segundo, que apenas retira da fila os sites vencidos: o agendamento não consulta o
+ * banco e tem precisão de segundos (frequências de 30s são respeitadas).</p>
  * 
- * <p><b>Algoritmo de Agendamento:</b></p>
+ * <p><b>Intervalo adaptativo:</b> o intervalo de cada site parte de frequencySeconds e
+ * é ajustado pela saúde ({@link AdaptiveFrequencyPolicy}): sites com última Run
+ * FAILED/WARNING são checados mais rápido, sites estáveis há muitas Runs recuam até um
+ * teto. O intervalo é recalculado a cada despacho, a cada Run ingerida nesta réplica e
+ * quando o status relido de site_status muda ({@link #retime}, a cada
+ * {@code monitoring.site-status.refresh-seconds}): uma falha ingerida por outra réplica
+ * também encurta o intervalo na réplica dona do site, sem esperar o intervalo antigo.</p>
+ * 
+ * <p><b>Orçamento global:</b> se a soma dos checks por minuto dos intervalos passar de
+ * {@code checks-per-minute-budget}, os intervalos dos sites estáveis são esticados até
+ * caber; só se os instáveis sozinhos passarem do orçamento todos são esticados. O
+ * orçamento é recalculado na sincronização periódica, com a visão de todos os sites
+ * (vale para o cluster, não por réplica).</p>
+ * 
+ * <p><b>Fase por site:</b> cada site recebe um deslocamento estável
+ * {@code fase = hash(siteId) mod intervalo} e só é checado nos instantes
+ * {@code fase + k * intervalo} (em segundos de época). Sites com o mesmo intervalo
+ * ficam espalhados uniformemente pelo período em vez de vencerem juntos, e a fase não
+ * muda entre restarts nem entre instâncias.</p>
+ * 
+ * <p><b>Próximo check de um site</b> (sempre o primeiro instante da fase após a referência):</p>
  * <pre>
- * Para cada site habilitado:
- *   1. Obter frequência (site.frequencySeconds ou default 300s)
- *   2. Calcular cutoff = now() - frequencySeconds
- *   3. Consultar última run do site
- *   4. Se última run < cutoff OU não tem runs:
- *      - Publicar mensagem RabbitMQ (RunCheckMessage)
+ * Inicialização   - após o started_at da última Run (SiteStatusService),
+ *                   ou agora se o site nunca rodou
+ * Ingestão de Run - após o started_at da Run (após o commit)
+ * Status mudou    - após o started_at da última Run, com o novo intervalo
+ *                   (agora, se esse instante já passou)
+ * Despacho        - após agora (se a Run não chegar, o check é repetido uma vez por
+ *                   período, não a cada tick)
+ * Site criado     - agora
  * </pre>
  * 
+ * <p><b>Limite de taxa:</b> cada tick publica no máximo
+ * {@code ceil(taxa média * max-burst-factor)} checks, onde a taxa média é a soma de
+ * {@code 1 / intervalo} dos sites. Excedentes (ex: sites vencidos durante um
+ * restart) ficam na fila para os próximos ticks, sem perder a fase.</p>
+ * 
+ * <p><b>Atualizações:</b> reagendar um site coloca uma nova entrada na fila; a entrada
+ * anterior fica obsoleta e é descartada quando chega ao topo (remoção preguiçosa). A fila
+ * tem no máximo algumas entradas por site.</p>
+ * 
  * <p><b>Configurações:</b></p>
  * <pre>
  * monitoring.default-check-frequency-seconds=300
  * 
  * Padrão: 300 segundos (5 minutos)
  * Usado quando site.frequencySeconds é null
+ * 
+ * monitoring.scheduler.max-burst-factor=2.0
+ * 
+ * Pico de publicações por segundo, em múltiplos da taxa média
+ * 
+ * monitoring.scheduler.site-sync-seconds=60
+ * 
+ * Intervalo de sincronização da fila com a tabela sites
+ * 
+ * monitoring.scheduler.in-flight-timeout-seconds=600
+ * 
+ * Tempo máximo de um check publicado sem Run ingerida
+ * 
+ * monitoring.scheduler.checks-per-minute-budget=0
+ * 
+ * Orçamento global de checks por minuto (0 = sem limite)
+ * </pre>
+ * 
+ * <p><b>Métricas:</b></p>
+ * <pre>
+ * monitoring.scheduler.dispatch.deferred - Checks publicados mais de um tick após o horário (adiados
+ *                                         pelo limite de taxa); cada check conta uma vez
+ * monitoring.scheduler.dispatch.lag.seconds - Atraso do check vencido mais antigo ainda não publicado
+ * monitoring.scheduler.dispatch.skipped  - Checks não publicados porque o anterior ainda está em andamento
+ * monitoring.scheduler.planned.checks.per.minute - Checks por minuto dos intervalos atuais
  * </pre>
  * 
  * <p><b>Publicação de Mensagens:</b></p>
  * <pre>
- * Exchange: check.topic (topic exchange)
- * Routing Key: site.check
- * Queue: run-check-queue (durável)
+ * Queue: monitor.run-check.priority (durável, x-max-priority=10)
  * Message: RunCheckMessage {
  *   siteId: Long,
  *   siteName: String,
- *   triggeredBy: "SCHEDULED"
+ *   baseUrl: String,
+ *   triggeredBy: MANUAL | RECHECK | SCHEDULED
  * }
  * </pre>
  * 
- * <p><b>Consulta Otimizada (findSitesDueForCheck):</b></p>
- * <pre>
- * SELECT s.* FROM sites s
- * LEFT JOIN runs r ON r.site_id = s.id
- * WHERE s.enabled = true
- *   AND (r.started_at IS NULL OR r.started_at < :cutoff)
- * GROUP BY s.id
- * HAVING MAX(r.started_at) IS NULL OR MAX(r.started_at) < :cutoff
- * 
- * Esta query evita N+1 queries e usa índice em (site_id, started_at)
- * </pre>
+ * <p>A prioridade da mensagem vem da origem ({@link CheckTrigger}): checks manuais
+ * (SiteController) passam à frente de tudo; re-checks de sites degradados passam à
+ * frente dos checks de rotina. Assim um backlog de checks agendados não atrasa um check
+ * manual nem a confirmação de uma falha.</p>
  * 
- * <p><b>Tratamento de Frequências Diferentes:</b></p>
- * <ul>
- *   <li>Site A: frequencySeconds = 60 (check a cada 1 minuto)</li>
- *   <li>Site B: frequencySeconds = 3600 (check a cada 1 hora)</li>
- *   <li>Site C: frequencySeconds = null (usa default 300s = 5 min)</li>
- * </ul>
- * 
- * <p><b>Garantias:</b></p>
- * <ul>
- *   <li>Não agenda check duplicado: verifica última run antes de publicar</li>
- *   <li>Tolerância a falhas: se publicação falhar, próxima execução tenta novamente</li>
- *   <li>Não bloqueia: publicação é assíncrona via RabbitMQ</li>
- *   <li>Idempotência: publicar mensagem duplicada não causa problemas (runner ignora)</li>
- * </ul>
- * 
- * <p><b>Performance:</b></p>
- * <ul>
- *   <li>Query única para buscar sites habilitados</li>
- *   <li>Query única para buscar sites due (com JOIN otimizado)</li>
- *   <li>Publicação RabbitMQ não-bloqueante</li>
- *   <li>Execução típica: < 100ms para 100 sites</li>
- * </ul>
- * 
- * <p><b>Escalabilidade:</b></p>
- * <pre>
- * - Job Store RAM: cada instância agenda independentemente
- * - Para evitar duplicação em clusters:
- *   * Usar JDBC Job Store com locks
- *   * Ou executar scheduler em apenas 1 instância
- *   * Ou usar ShedLock (@SchedulerLock)
- * </pre>
+ * <p><b>Checks em andamento:</b> cada check publicado é registrado em check_dispatches
+ * (com expiração) e a ingestão de uma Run do site remove o registro. Um site cujo check
+ * anterior ainda não voltou não é publicado de novo naquele instante (apenas reagendado):
+ * sites lentos ou travados ficam com no máximo um check na fila, em vez de acumular um
+ * por período. Após {@code in-flight-timeout-seconds} sem Run o check é considerado
+ * perdido e o site volta a ser publicado. A tabela só é consultada para sites que esta
+ * réplica publicou e ainda não viu ingeridos e, até {@code in-flight-timeout-seconds}
+ * após uma mudança no anel, para todos os sites vencidos (os checks do dono anterior
+ * ainda podem estar em andamento).</p>
  * 
- * <p><b>Monitoramento:</b></p>
- * <ul>
- *   <li>Log INFO: quantos sites foram agendados</li>
- *   <li>Log WARN: sites sem páginas configuradas</li>
- *   <li>Log ERROR: falha ao publicar mensagem</li>
- *   <li>Métricas: contador de checks agendados (via Actuator)</li>
- * </ul>
+ * <p><b>Réplicas:</b> toda réplica mantém a fila de todos os sites, mas só publica os
+ * checks dos sites que lhe pertencem no anel de hash consistente
+ * ({@link SchedulerMembership}); os demais apenas avançam para o próximo instante da fase.
+ * Assim, quando um site muda de dono, a nova réplica já tem o horário certo. O limite de
+ * taxa de cada réplica é a sua fração da taxa média. {@link #syncSites()} (periódico)
+ * traz sites criados ou alterados em outras réplicas.</p>
  * 
  * @author Sistema de Monitoramento
  * @version 1.0
@@ -118,44 +162,455 @@ public class CheckSchedulerService {
     private static final Logger log = LoggerFactory.getLogger(CheckSchedulerService.class);
     
     private final SiteRepository siteRepository;
+    private final SiteStatusService siteStatusService;
     private final RabbitTemplate rabbitTemplate;
+    private final SchedulerMembership membership;
+    private final CheckDispatchRepository checkDispatchRepository;
+    private final AdaptiveFrequencyPolicy frequencyPolicy;
+    private final Counter deferredCounter;
+    private final Counter skippedCounter;
     
     @Value("${monitoring.default-check-frequency-seconds:300}")
     private int defaultFrequencySeconds;
     
-    public CheckSchedulerService(SiteRepository siteRepository, RabbitTemplate rabbitTemplate) {
+    @Value("${monitoring.scheduler.max-burst-factor:2.0}")
+    private double maxBurstFactor;
+    
+    @Value("${monitoring.scheduler.in-flight-timeout-seconds:600}")
+    private int inFlightTimeoutSeconds;
+    
+    @Value("${monitoring.scheduler.checks-per-minute-budget:0}")
+    private double checksPerMinuteBudget;
+    
+    // Guarded by this: next-due queue, the current entry of each site and their summed rate
+    private final PriorityQueue<ScheduledCheck> queue =
+        new PriorityQueue<>(Comparator.comparing(ScheduledCheck::dueAt));
+    private final Map<Long, ScheduledCheck> scheduled = new HashMap<>();
+    private double checksPerSecond;
+    private double healthyStretch = 1.0;
+    private double unhealthyStretch = 1.0;
+    private double dispatchLagSeconds;
+    
+    // Expiry of the checks this replica dispatched and has not seen ingested
+    private final Map<Long, LocalDateTime> inFlight = new ConcurrentHashMap<>();
+    
+    public CheckSchedulerService(
+            SiteRepository siteRepository,
+            SiteStatusService siteStatusService,
+            RabbitTemplate rabbitTemplate,
+            SchedulerMembership membership,
+            CheckDispatchRepository checkDispatchRepository,
+            AdaptiveFrequencyPolicy frequencyPolicy,
+            MeterRegistry meterRegistry) {
         this.siteRepository = siteRepository;
+        this.siteStatusService = siteStatusService;
         this.rabbitTemplate = rabbitTemplate;
+        this.membership = membership;
+        this.checkDispatchRepository = checkDispatchRepository;
+        this.frequencyPolicy = frequencyPolicy;
+        this.deferredCounter = meterRegistry.counter("monitoring.scheduler.dispatch.deferred");
+        this.skippedCounter = meterRegistry.counter("monitoring.scheduler.dispatch.skipped");
+        meterRegistry.gauge("monitoring.scheduler.planned.checks.per.minute", this, s -> s.plannedChecksPerMinute());
+        meterRegistry.gauge("monitoring.scheduler.dispatch.lag.seconds", this, s -> s.dispatchLagSeconds());
+    }
+    
+    private synchronized double plannedChecksPerMinute() {
+        return checksPerSecond * 60;
+    }
+    
+    private synchronized double dispatchLagSeconds() {
+        return dispatchLagSeconds;
+    }
+    
+    /**
+     * Reconstrói a fila a partir dos sites habilitados e da última Run de cada um.
+     */
+    @PostConstruct
+    public synchronized void rebuild() {
+        List<Site> sites = siteRepository.findByEnabledTrue();
+        Map<Long, SiteStatus> latest = siteStatusService.getLatest(sites.stream().map(Site::getId).toList());
+        
+        queue.clear();
+        scheduled.clear();
+        checksPerSecond = 0;
+        LocalDateTime now = LocalDateTime.now();
+        applyBudget(sites.stream().map(site -> newCheck(site, now)).toList());
+        for (Site site : sites) {
+            SiteStatus status = latest.get(site.getId());
+            ScheduledCheck check = newCheck(site, now);
+            schedule(status == null ? check : check.withDueAt(check.nextSlotAfter(status.lastStartedAt())));
+        }
+        log.info("Check scheduler loaded {} sites", scheduled.size());
+    }
+    
+    /**
+     * Publica os checks vencidos (até o limite de taxa do tick) e os reagenda para o
+     * próximo instante da fase.
+     */
+    public void dispatchDueChecks() {
+        List<ScheduledCheck> due = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime previousTick = now.minusSeconds(1);
+        
+        synchronized (this) {
+            // This replica's share of the average rate
+            double ownedRate = checksPerSecond / membership.liveMembers();
+            int budget = (int) Math.max(1, Math.ceil(ownedRate * maxBurstFactor));
+            while (!queue.isEmpty() && !queue.peek().dueAt().isAfter(now)) {
+                ScheduledCheck check = queue.peek();
+                if (scheduled.get(check.siteId()) != check) {
+                    queue.poll(); // superseded by a later reschedule
+                    continue;
+                }
+                boolean owned = membership.owns(check.siteId());
+                if (owned && due.size() == budget) {
+                    break;
+                }
+                queue.poll();
+                if (owned) {
+                    due.add(check);
+                    if (check.dueAt().isBefore(previousTick)) {
+                        // Passed over by at least one earlier tick; counted once, when finally sent
+                        deferredCounter.increment();
+                    }
+                }
+                // Sites owned by other replicas advance too, so a takeover keeps their phase
+                ScheduledCheck next = retimed(check);
+                schedule(next.withDueAt(next.nextSlotAfter(now)));
+            }
+            // Stopped at the budget: the head is the oldest owned check left waiting
+            ScheduledCheck head = queue.peek();
+            dispatchLagSeconds = head != null && head.dueAt().isBefore(now)
+                ? Duration.between(head.dueAt(), now).toMillis() / 1000.0
+                : 0;
+        }
+        
+        if (due.isEmpty()) {
+            return;
+        }
+        
+        // Sites this replica dispatched and has not seen ingested can be in flight; so can any
+        // site whose previous owner dispatched it before the ring changed
+        boolean ringChanged = membership.changedWithin(inFlightTimeoutSeconds);
+        List<Long> maybeInFlight = due.stream()
+            .map(ScheduledCheck::siteId)
+            .filter(siteId -> {
+                LocalDateTime expiresAt = inFlight.get(siteId);
+                return ringChanged || expiresAt != null && expiresAt.isAfter(now);
+            })
+            .toList();
+        Set<Long> outstanding = findOutstanding(maybeInFlight);
+        if (!outstanding.isEmpty()) {
+            log.info("Skipping {} checks still in flight: siteIds={}", outstanding.size(), outstanding);
+            skippedCounter.increment(outstanding.size());
+        }
+        
+        List<ScheduledCheck> toPublish = due.stream()
+            .filter(check -> !outstanding.contains(check.siteId()))
+            .toList();
+        markDispatched(toPublish, now);
+        List<Long> unpublished = new ArrayList<>();
+        for (ScheduledCheck check : toPublish) {
+            if (!publishRunCheck(check)) {
+                unpublished.add(check.siteId());
+            }
+        }
+        releaseDispatched(unpublished);
+    }
+    
+    private Set<Long> findOutstanding(List<Long> siteIds) {
+        if (siteIds.isEmpty()) {
+            return Set.of();
+        }
+        try {
+            return checkDispatchRepository.findOutstanding(siteIds);
+        } catch (RuntimeException e) {
+            // Fail open: a duplicate check is better than none
+            log.warn("Could not read in-flight checks, dispatching anyway: {}", e.getMessage());
+            return Set.of();
+        }
+    }
+    
+    private void markDispatched(List<ScheduledCheck> checks, LocalDateTime now) {
+        if (checks.isEmpty()) {
+            return;
+        }
+        // Recorded before publishing, so a fast run's ingest always finds the row to clear
+        List<Long> siteIds = checks.stream().map(ScheduledCheck::siteId).toList();
+        try {
+            checkDispatchRepository.markDispatched(siteIds, inFlightTimeoutSeconds);
+        } catch (RuntimeException e) {
+            log.warn("Could not record in-flight checks: {}", e.getMessage());
+        }
+        LocalDateTime expiresAt = now.plusSeconds(inFlightTimeoutSeconds);
+        siteIds.forEach(siteId -> inFlight.put(siteId, expiresAt));
     }
     
-    public void scheduleChecks() {
-        log.info("Running check scheduler");
+    /**
+     * Desfaz o registro de checks que não chegaram ao broker, para que o próximo slot
+     * os publique em vez de esperar o timeout de in-flight.
+     */
+    private void releaseDispatched(List<Long> siteIds) {
+        if (siteIds.isEmpty()) {
+            return;
+        }
+        siteIds.forEach(inFlight::remove);
+        try {
+            checkDispatchRepository.clear(siteIds);
+        } catch (RuntimeException e) {
+            // Rows left behind expire with in-flight-timeout-seconds
+            log.warn("Could not release unpublished checks {}: {}", siteIds, e.getMessage());
+        }
+    }
+    
+    /**
+     * Sincroniza a fila com os sites habilitados: inclui sites novos (ex: criados em outra
+     * réplica), remove os desabilitados e reagenda os que mudaram de frequência. Sites
+     * inalterados mantêm o horário atual. Também recalcula o orçamento.
+     */
+    public void syncSites() {
+        List<Site> sites = siteRepository.findByEnabledTrue();
+        LocalDateTime now = LocalDateTime.now();
         
-        List<Site> enabledSites = siteRepository.findByEnabledTrue();
+        synchronized (this) {
+            Set<Long> enabled = new HashSet<>();
+            for (Site site : sites) {
+                enabled.add(site.getId());
+                ScheduledCheck current = scheduled.get(site.getId());
+                ScheduledCheck fresh = newCheck(site, now);
+                if (current == null) {
+                    schedule(fresh);
+                } else if (current.frequencySeconds() != fresh.frequencySeconds()) {
+                    schedule(fresh.withDueAt(fresh.nextSlotAfter(now)));
+                } else if (!current.baseUrl().equals(fresh.baseUrl()) || !current.siteName().equals(fresh.siteName())) {
+                    schedule(fresh.withDueAt(current.dueAt()));
+                }
+            }
+            for (Long siteId : List.copyOf(scheduled.keySet())) {
+                if (!enabled.contains(siteId)) {
+                    unschedule(siteId);
+                }
+            }
+            // New stretch factors and health-driven intervals apply now, not after the old interval
+            applyBudget(scheduled.values());
+            for (ScheduledCheck current : List.copyOf(scheduled.values())) {
+                retimeIfChanged(current, now);
+            }
+        }
+    }
+    
+    /**
+     * Reajusta o intervalo dos sites cujo status mudou (ex: Runs ingeridas em outra réplica,
+     * trazidas por {@link SiteStatusService#refresh}). Sites cujo intervalo não muda
+     * mantêm o horário atual.
+     */
+    public synchronized void retime(Collection<Long> siteIds) {
+        LocalDateTime now = LocalDateTime.now();
+        for (Long siteId : siteIds) {
+            ScheduledCheck current = scheduled.get(siteId);
+            if (current != null) {
+                retimeIfChanged(current, now);
+            }
+        }
+    }
+    
+    private void retimeIfChanged(ScheduledCheck current, LocalDateTime now) {
+        ScheduledCheck next = retimed(current);
+        if (next.intervalSeconds() == current.intervalSeconds()) {
+            return;
+        }
+        // Counted from the latest run, as on local ingest; a slot already past is due now
+        LocalDateTime from = siteStatusService.getCached(current.siteId())
+            .map(SiteStatus::lastStartedAt)
+            .orElse(now);
+        LocalDateTime dueAt = next.nextSlotAfter(from);
+        schedule(next.withDueAt(dueAt.isAfter(now) ? dueAt : now));
+    }
+    
+    /**
+     * Inclui (ou remove, se desabilitado) um site criado ou alterado; o primeiro check é imediato.
+     */
+    public synchronized void register(Site site) {
+        if (Boolean.TRUE.equals(site.getEnabled())) {
+            schedule(newCheck(site, LocalDateTime.now()));
+        } else {
+            unschedule(site.getId());
+        }
+    }
+    
+    /**
+     * Encerra o check em andamento dos sites das Runs ingeridas e os reagenda após o
+     * commit da transação atual (imediatamente, se não houver). Deve ser chamado dentro
+     * da transação da ingestão.
+     */
+    public void recordRuns(List<Run> runs) {
+        // Same transaction as the runs: the site's check is no longer in flight
+        checkDispatchRepository.clear(runs.stream().map(run -> run.getSite().getId()).distinct().toList());
         
-        for (Site site : enabledSites) {
-            int frequencySeconds = site.getFrequencySeconds() != null 
-                ? site.getFrequencySeconds() 
-                : defaultFrequencySeconds;
-            
-            LocalDateTime cutoff = LocalDateTime.now().minusSeconds(frequencySeconds);
-            
-            List<Site> dueSites = siteRepository.findSitesDueForCheck(cutoff);
-            
-            if (dueSites.stream().anyMatch(s -> s.getId().equals(site.getId()))) {
-                publishRunCheck(site);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    reschedule(runs);
+                }
+            });
+        } else {
+            reschedule(runs);
+        }
+    }
+    
+    private synchronized void reschedule(List<Run> runs) {
+        for (Run run : runs) {
+            inFlight.remove(run.getSite().getId());
+            ScheduledCheck current = scheduled.get(run.getSite().getId());
+            if (current == null) {
+                continue; // disabled or unknown site
+            }
+            ScheduledCheck next = retimed(current);
+            LocalDateTime dueAt = next.nextSlotAfter(run.getStartedAt());
+            if (next.intervalSeconds() != current.intervalSeconds()) {
+                // Health changed: switch to the new interval now (a failure is re-checked sooner)
+                schedule(next.withDueAt(dueAt));
+            } else if (dueAt.isAfter(current.dueAt())) {
+                schedule(current.withDueAt(dueAt));
             }
         }
     }
     
-    private void publishRunCheck(Site site) {
+    private ScheduledCheck newCheck(Site site, LocalDateTime dueAt) {
+        int frequencySeconds = site.getFrequencySeconds() != null ? site.getFrequencySeconds() : defaultFrequencySeconds;
+        return new ScheduledCheck(site.getId(), site.getName(), site.getBaseUrl(),
+            frequencySeconds, intervalSeconds(site.getId(), frequencySeconds), dueAt);
+    }
+    
+    /**
+     * Intervalo atual do site: política adaptativa (saúde) esticada pelo orçamento global.
+     */
+    private int intervalSeconds(long siteId, int frequencySeconds) {
+        SiteStatus status = siteStatusService.getCached(siteId).orElse(null);
+        double stretch = frequencyPolicy.isUnhealthy(status) ? unhealthyStretch : healthyStretch;
+        return (int) Math.ceil(frequencyPolicy.intervalSeconds(frequencySeconds, status) * stretch);
+    }
+    
+    private ScheduledCheck retimed(ScheduledCheck check) {
+        return check.withInterval(intervalSeconds(check.siteId(), check.frequencySeconds()));
+    }
+    
+    /**
+     * Recalcula quanto esticar os intervalos para caber em checks-per-minute-budget.
+     * Sites instáveis têm prioridade: só os estáveis são esticados enquanto isso basta.
+     */
+    private void applyBudget(Collection<ScheduledCheck> checks) {
+        double unhealthyDemand = 0;
+        double healthyDemand = 0;
+        for (ScheduledCheck check : checks) {
+            SiteStatus status = siteStatusService.getCached(check.siteId()).orElse(null);
+            double perMinute = 60.0 / frequencyPolicy.intervalSeconds(check.frequencySeconds(), status);
+            if (frequencyPolicy.isUnhealthy(status)) {
+                unhealthyDemand += perMinute;
+            } else {
+                healthyDemand += perMinute;
+            }
+        }
+        
+        double demand = unhealthyDemand + healthyDemand;
+        if (checksPerMinuteBudget <= 0 || demand <= checksPerMinuteBudget) {
+            unhealthyStretch = 1.0;
+            healthyStretch = 1.0;
+        } else if (unhealthyDemand < checksPerMinuteBudget) {
+            unhealthyStretch = 1.0;
+            healthyStretch = healthyDemand / (checksPerMinuteBudget - unhealthyDemand);
+        } else {
+            unhealthyStretch = demand / checksPerMinuteBudget;
+            healthyStretch = unhealthyStretch;
+        }
+        if (demand > checksPerMinuteBudget && checksPerMinuteBudget > 0) {
+            log.info("Check demand {}/min over budget {}/min: stretching intervals (healthy x{}, unhealthy x{})",
+                Math.round(demand), checksPerMinuteBudget,
+                String.format("%.2f", healthyStretch), String.format("%.2f", unhealthyStretch));
+        }
+    }
+    
+    private void schedule(ScheduledCheck check) {
+        ScheduledCheck previous = scheduled.put(check.siteId(), check);
+        if (previous != null) {
+            checksPerSecond -= 1.0 / previous.intervalSeconds();
+        }
+        checksPerSecond += 1.0 / check.intervalSeconds();
+        queue.add(check);
+    }
+    
+    private void unschedule(Long siteId) {
+        ScheduledCheck previous = scheduled.remove(siteId);
+        if (previous != null) {
+            checksPerSecond -= 1.0 / previous.intervalSeconds();
+        }
+    }
+    
+    /**
+     * Deslocamento estável do site dentro do período (mix de bits do id, SplitMix64).
+     */
+    private static int phaseSeconds(long siteId, int periodSeconds) {
+        long z = siteId + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        z = z ^ (z >>> 31);
+        return (int) Math.floorMod(z, (long) periodSeconds);
+    }
+    
+    /**
+     * @return false se o broker recusou a mensagem (o check não foi enviado)
+     */
+    private boolean publishRunCheck(ScheduledCheck check) {
+        CheckTrigger trigger = AdaptiveFrequencyPolicy.isDegraded(siteStatusService.getCached(check.siteId()).orElse(null))
+            ? CheckTrigger.RECHECK
+            : CheckTrigger.SCHEDULED;
         RunCheckMessage message = new RunCheckMessage(
-            site.getId(),
-            site.getName(),
-            site.getBaseUrl()
+            check.siteId(),
+            check.siteName(),
+            check.baseUrl(),
+            trigger
         );
         
-        rabbitTemplate.convertAndSend(RabbitMQConfig.RUN_CHECK_QUEUE, message);
-        log.info("Published run check for site: {} (id={})", site.getName(), site.getId());
+        try {
+            rabbitTemplate.convertAndSend(RabbitMQConfig.RUN_CHECK_PRIORITY_QUEUE, message,
+                RabbitMQConfig.withPriority(trigger));
+            log.info("Published {} run check for site: {} (id={})", trigger, check.siteName(), check.siteId());
+            return true;
+        } catch (RuntimeException e) {
+            // Keep dispatching the rest; the caller releases this site for its next slot
+            log.error("Failed to publish run check for site id={}: {}", check.siteId(), e.getMessage());
+            return false;
+        }
+    }
+    
+    /**
+     * Entrada da fila: dados necessários para publicar o check sem consultar o banco.
+     */
+    private record ScheduledCheck(
+        Long siteId,
+        String siteName,
+        String baseUrl,
+        int frequencySeconds,
+        int intervalSeconds,
+        LocalDateTime dueAt
+    ) {
+        ScheduledCheck withDueAt(LocalDateTime next) {
+            return new ScheduledCheck(siteId, siteName, baseUrl, frequencySeconds, intervalSeconds, next);
+        }
+        
+        ScheduledCheck withInterval(int interval) {
+            return new ScheduledCheck(siteId, siteName, baseUrl, frequencySeconds, interval, dueAt);
+        }
+        
+        /**
+         * Primeiro instante {@code fase + k * intervalo} estritamente posterior a {@code time}.
+         */
+        LocalDateTime nextSlotAfter(LocalDateTime time) {
+            int phase = phaseSeconds(siteId, intervalSeconds);
+            long epochSecond = time.toEpochSecond(ZoneOffset.UTC);
+            long slot = Math.floorDiv(epochSecond - phase, intervalSeconds) + 1;
+            return LocalDateTime.ofEpochSecond(slot * intervalSeconds + phase, 0, ZoneOffset.UTC);
+        }
     }
 }
@@ -0,0 +1,115 @@
+package com.monitoring.api.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Cache em memória (Caffeine) das respostas do dashboard.
+ *
+ * <p>Chave: (siteId, visão, range, bucket). Entre duas Runs de um site as respostas não
+ * mudam, então dashboards abertos em várias abas/wallboards são servidos sem consultar o
+ * banco. A ingestão invalida todas as entradas do site após o commit; o TTL limita a
+ * defasagem de janelas relativas ("últimas 24h") em sites sem Runs novas.</p>
+ *
+ * <p><b>Configurações:</b></p>
+ * <pre>
+ * monitoring.dashboard-cache.max-size=1000    - Entradas máximas (LRU aproximado)
+ * monitoring.dashboard-cache.ttl-seconds=60   - Tempo de vida de cada entrada
+ * </pre>
+ *
+ * <p><b>Métricas (Micrometer, cache=dashboard):</b></p>
+ * <pre>
+ * cache.gets{result=hit|miss}   - Acertos e faltas
+ * cache.evictions               - Remoções por tamanho/TTL
+ * cache.size                    - Entradas atuais
+ * </pre>
+ *
+ * @author Sistema de Monitoramento
+ * @version 1.0
+ * @since 2026-02-02
+ * @see DashboardService
+ */
+@Component
+public class DashboardCache {
+
+    /**
+     * @param siteId Site da resposta, ou null para visões de todos os sites (invalidadas por qualquer site)
+     * @param view Resposta cacheada (ex: overview, errors, perf)
+     * @param bucket Bucket da série, ou null
+     * @param variant Parâmetros adicionais que alteram a resposta (ex: maxPoints, ordenação), ou null
+     */
+    public record Key(Long siteId, String view, String range, String bucket, Object variant) {}
+
+    private final Cache<Key, Object> cache;
+
+    public DashboardCache(
+            MeterRegistry meterRegistry,
+            @Value("${monitoring.dashboard-cache.max-size:1000}") long maxSize,
+            @Value("${monitoring.dashboard-cache.ttl-seconds:60}") long ttlSeconds) {
+        this.cache = Caffeine.newBuilder()
+            .maximumSize(maxSize)
+            .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "dashboard");
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T get(Key key, Supplier<T> loader) {
+        return (T) cache.get(key, k -> loader.get());
+    }
+
+    /**
+     * Como {@link #get(Key, Supplier)}, mas só guarda respostas aceitas por {@code cacheable}
+     * (ex: não parciais). Uma resposta recusada é devolvida ao chamador sem nunca entrar no
+     * cache; requisições concorrentes para a mesma chave calculam a sua própria.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(Key key, Supplier<T> loader, Predicate<? super T> cacheable) {
+        Object[] uncached = new Object[1];
+        Object value = cache.get(key, k -> {
+            T loaded = loader.get();
+            if (cacheable.test(loaded)) {
+                return loaded;
+            }
+            // A null mapping is not stored
+            uncached[0] = loaded;
+            return null;
+        });
+        return (T) (value != null ? value : uncached[0]);
+    }
+
+    public void invalidateSite(Long siteId) {
+        // Fleet-wide views (null siteId) include every site
+        cache.asMap().keySet().removeIf(key -> key.siteId() == null || key.siteId().equals(siteId));
+    }
+
+    /**
+     * Invalida os sites após o commit da transação atual (imediatamente, se não houver).
+     */
+    public void invalidateSitesAfterCommit(Collection<Long> siteIds) {
+        Set<Long> sites = Set.copyOf(siteIds);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    sites.forEach(DashboardCache.this::invalidateSite);
+                }
+            });
+        } else {
+            sites.forEach(this::invalidateSite);
+        }
+    }
+}
@@ -1,12 +1,18 @@
 package com.monitoring.api.service;
 
-import com.monitoring.api.domain.entity.PageResult;
-import com.monitoring.api.domain.entity.Run;
 import com.monitoring.api.domain.entity.Site;
+import com.monitoring.api.domain.enums.RollupGranularity;
+import com.monitoring.api.domain.enums.RunStatus;
 import com.monitoring.api.domain.repository.*;
+import com.monitoring.api.domain.rollup.SiteRollup;
+import com.monitoring.api.domain.status.SiteStatus;
 import com.monitoring.api.dto.dashboard.*;
+import com.monitoring.api.service.timeseries.LttbDownsampler;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
+import java.sql.Timestamp;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.stream.Collectors;
@@ -26,6 +32,13 @@ import java.util.stream.Collectors;
  *   <li>Time bucketing para agrupamento de dados por período</li>
  * </ul>
  * 
+ * <p><b>Fonte dos dados:</b> uptime, issues e séries de 1h/6h/1d leem as tabelas de
+ * rollup (site_rollups), mantidas na ingestão; o custo depende só do tamanho da janela,
+ * não do histórico. Percentis vêm dos sketches de latência mesclados dos rollups
+ * (erro relativo de até 1%, ver {@link com.monitoring.api.domain.rollup.LatencySketch}).
+ * Séries de 5m são agregadas em SQL sobre os dados brutos (date_bin + avg/p95/max).
+ * Todas as séries aceitam um limite de pontos opcional (downsampling LTTB).</p>
+ * 
  * <p><b>Ranges suportados:</b></p>
  * <pre>
  * 1h  - Última hora
@@ -35,6 +48,13 @@ import java.util.stream.Collectors;
  * 30d - Últimos 30 dias
  * </pre>
  * 
+ * <p><b>Início da janela:</b> o range raramente começa em hora cheia. Uptime, issues e a
+ * série de erros contam exatamente as runs desde {@code now - range}: buckets inteiros vêm
+ * dos rollups e o trecho inicial {@code [now - range, fim do primeiro bucket)} é agregado
+ * da tabela runs (só status e contagens). Percentis e médias de latência usam o primeiro
+ * bucket inteiro (até um bucket a mais que o range), pois sketches não se recortam. O
+ * fleet continua alinhado ao bucket (hora; dia acima de 24h).</p>
+ * 
  * <p><b>Buckets para time series:</b></p>
  * <pre>
  * 5m  - Agrupamento de 5 minutos
@@ -53,20 +73,34 @@ import java.util.stream.Collectors;
 @Service
 public class DashboardService {
     
+    static final int MAX_RUNS_PAGE_SIZE = 500;
+    static final int BUNDLE_RUNS_LIMIT = 200;
+    static final long BUNDLE_ETAG_SLOT_MINUTES = 5;
+    private static final List<String> HEALTH_ORDER = List.of("DOWN", "DEGRADED", "UNKNOWN", "HEALTHY");
+    
     private final SiteRepository siteRepository;
     private final RunRepository runRepository;
     private final PageResultRepository pageResultRepository;
     private final FailureRepository failureRepository;
+    private final RollupRepository rollupRepository;
+    private final SiteStatusService siteStatusService;
+    private final QueryFanOut queryFanOut;
     
     public DashboardService(
             SiteRepository siteRepository,
             RunRepository runRepository,
             PageResultRepository pageResultRepository,
-            FailureRepository failureRepository) {
+            FailureRepository failureRepository,
+            RollupRepository rollupRepository,
+            SiteStatusService siteStatusService,
+            QueryFanOut queryFanOut) {
         this.siteRepository = siteRepository;
         this.runRepository = runRepository;
         this.pageResultRepository = pageResultRepository;
         this.failureRepository = failureRepository;
+        this.rollupRepository = rollupRepository;
+        this.siteStatusService = siteStatusService;
+        this.queryFanOut = queryFanOut;
     }
     
     /**
@@ -91,6 +125,14 @@ public class DashboardService {
      * UNKNOWN - Nenhuma run encontrada
      * </p>
      * 
+     * <p><b>Janela:</b> uptime e issues cobrem exatamente {@code [now - range, now)}:
+     * rollups horários das horas cheias mais as runs da hora parcial inicial. Percentis
+     * incluem a hora parcial inteira (até 1 hora a mais que o range pedido).</p>
+     * 
+     * <p><b>Consultas em paralelo:</b> site, rollups, runs da hora inicial e última run
+     * são buscados concorrentemente via {@link QueryFanOut}, com prazo total. Ramos que não
+     * terminam a tempo vêm nulos e a resposta é marcada com {@code partial = true}.</p>
+     * 
      * @param siteId ID do site a ser analisado
      * @param range Período de análise (1h, 6h, 24h, 7d, 30d)
      * @return OverviewResponse com todas as métricas agregadas
@@ -98,119 +140,347 @@ public class DashboardService {
      * @see OverviewResponse
      */
     public OverviewResponse getOverview(Long siteId, String range) {
-        Site site = siteRepository.findById(siteId)
-            .orElseThrow(() -> new IllegalArgumentException("Site not found"));
+        LocalDateTime from = parseRange(range);
+        LocalDateTime to = LocalDateTime.now();
         
+        // Independent branches run concurrently under one deadline
+        QueryFanOut.Batch batch = queryFanOut.start();
+        QueryFanOut.Branch<Optional<Site>> siteBranch = batch.submit("site",
+            () -> siteRepository.findById(siteId));
+        QueryFanOut.Branch<List<SiteRollup>> hourlyBranch = batch.submit("rollups",
+            () -> rollupRepository.findSiteRollups(siteId, RollupGranularity.HOUR, from, to));
+        QueryFanOut.Branch<Optional<SiteRollup>> leadingBranch = batch.submit("leadingRuns",
+            () -> leadingRuns(siteId, RollupGranularity.HOUR, from));
+        QueryFanOut.Branch<Optional<SiteStatus>> statusBranch = batch.submit("status",
+            () -> siteStatusService.getLatest(siteId));
+        
+        Optional<Site> site = siteBranch.await(null);
+        if (site != null && site.isEmpty()) {
+            throw new IllegalArgumentException("Site not found");
+        }
+        
+        List<SiteRollup> hourly = hourlyBranch.await(null);
+        Optional<SiteRollup> leading = leadingBranch.await(null);
+        Optional<SiteRollup> totals = hourly == null || leading == null
+            ? null
+            : clipLeadingBucket(hourly, from, leading).stream().reduce(SiteRollup::plus);
+        
+        return toOverview(siteId, site, totals, statusBranch.await(Optional.empty()), batch.isPartial());
+    }
+    
+    /**
+     * Overview, séries de erros (buckets de 1h) e performance (buckets de 6h) e runs
+     * recentes de um site, para o dashboard em uma única requisição.
+     * 
+     * <p>Os rollups horários são lidos uma vez, para a maior das duas janelas, e
+     * compartilhados: overview e série de erros usam {@code range}, a série de performance
+     * usa {@code perfRange}. Overview e série de erros contam só as runs desde
+     * {@code now - range} (hora parcial inicial lida das runs). Site, rollups, status e runs
+     * são buscados em paralelo via {@link QueryFanOut}.</p>
+     * 
+     * @throws IllegalArgumentException se o site não existir
+     */
+    public DashboardBundle getBundle(Long siteId, String range, String perfRange) {
+        LocalDateTime to = LocalDateTime.now();
         LocalDateTime from = parseRange(range);
+        LocalDateTime perfFrom = parseRange(perfRange);
+        LocalDateTime scanFrom = from.isBefore(perfFrom) ? from : perfFrom;
         
-        // Get uptime
-        Object[] uptimeData = runRepository.calculateUptime(siteId, from);
-        Double uptime = calculateUptime(uptimeData);
+        QueryFanOut.Batch batch = queryFanOut.start();
+        QueryFanOut.Branch<Optional<Site>> siteBranch = batch.submit("site",
+            () -> siteRepository.findById(siteId));
+        QueryFanOut.Branch<List<SiteRollup>> hourlyBranch = batch.submit("rollups",
+            () -> rollupRepository.findSiteRollups(siteId, RollupGranularity.HOUR, scanFrom, to));
+        QueryFanOut.Branch<Optional<SiteRollup>> leadingBranch = batch.submit("leadingRuns",
+            () -> leadingRuns(siteId, RollupGranularity.HOUR, from));
+        QueryFanOut.Branch<Optional<SiteStatus>> statusBranch = batch.submit("status",
+            () -> siteStatusService.getLatest(siteId));
+        QueryFanOut.Branch<RunPage> runsBranch = batch.submit("runs",
+            () -> getRuns(siteId, from, to, null, BUNDLE_RUNS_LIMIT));
         
-        // Get issues by severity
-        List<Object[]> severityCounts = failureRepository.countBySeveritySince(siteId, from);
-        Map<String, Integer> issuesBySeverity = severityCounts.stream()
-            .collect(Collectors.toMap(
-                arr -> arr[0].toString(),
-                arr -> ((Number) arr[1]).intValue()
-            ));
+        Optional<Site> site = siteBranch.await(null);
+        if (site != null && site.isEmpty()) {
+            throw new IllegalArgumentException("Site not found");
+        }
+        
+        List<SiteRollup> hourly = hourlyBranch.await(null);
+        Optional<SiteRollup> leading = leadingBranch.await(null);
+        boolean complete = hourly != null && leading != null;
+        List<SiteRollup> inRange = complete ? clipLeadingBucket(since(hourly, from), from, leading) : List.of();
+        List<SiteRollup> inPerfRange = hourly == null ? List.of() : since(hourly, perfFrom);
+        
+        Optional<SiteRollup> totals = complete ? inRange.stream().reduce(SiteRollup::plus) : null;
+        Optional<SiteStatus> latest = statusBranch.await(Optional.empty());
+        RunPage runs = runsBranch.await(new RunPage(List.of(), null));
+        
+        List<DataPoint> errorPoints = inRange.stream()
+            .map(DashboardService::errorPoint)
+            .collect(Collectors.toList());
+        List<DataPoint> perfPoints = foldSixHours(inPerfRange).stream()
+            .filter(r -> r.avgLoadMs() != null)
+            .map(DashboardService::perfPoint)
+            .collect(Collectors.toList());
+        
+        return new DashboardBundle(
+            toOverview(siteId, site, totals, latest, batch.isPartial()),
+            new TimeseriesResponse(siteId, from, to, "1h", errorPoints),
+            new TimeseriesResponse(siteId, perfFrom, to, "6h", perfPoints),
+            runs,
+            batch.isPartial()
+        );
+    }
+    
+    /**
+     * Versão atual do bundle, sem consultar o banco: muda a cada Run ingerida do site e a
+     * cada {@value #BUNDLE_ETAG_SLOT_MINUTES} minutos (janelas relativas deslizam).
+     */
+    public String bundleEtag(Long siteId, String range, String perfRange) {
+        long lastRunId = siteStatusService.getLatest(siteId).map(SiteStatus::lastRunId).orElse(0L);
+        return bundleEtag(siteId, lastRunId, range, perfRange);
+    }
+    
+    /**
+     * Versão de um bundle já montado, derivada da última Run que ele contém.
+     */
+    public String bundleEtag(DashboardBundle bundle, String range, String perfRange) {
+        LastRun lastRun = bundle.overview().lastRun();
+        return bundleEtag(bundle.overview().siteId(), lastRun == null ? 0L : lastRun.runId(), range, perfRange);
+    }
+    
+    private static String bundleEtag(Long siteId, long lastRunId, String range, String perfRange) {
+        long slot = System.currentTimeMillis() / (BUNDLE_ETAG_SLOT_MINUTES * 60_000L);
+        return "\"" + siteId + "-" + lastRunId + "-" + range + "-" + perfRange + "-" + slot + "\"";
+    }
+    
+    /**
+     * Status, uptime, issues e P95 de todos os sites habilitados, ordenados.
+     * 
+     * <p>Custo fixo, independente do número de sites: uma consulta de sites, uma de
+     * rollups (somados por site durante a leitura) e o status em memória. Janelas de até
+     * 24h leem rollups horários; janelas maiores leem os diários (alinhadas ao dia).</p>
+     * 
+     * <p><b>Ordenação:</b></p>
+     * <pre>
+     * health - Piores primeiro: DOWN, DEGRADED, UNKNOWN, HEALTHY; depois menor uptime (padrão)
+     * uptime - Menor uptime primeiro
+     * p95    - Maior P95 de load time primeiro
+     * name   - Nome do site
+     * </pre>
+     */
+    public List<FleetSiteSummary> getFleet(String range, String sort) {
+        LocalDateTime to = LocalDateTime.now();
+        LocalDateTime from = parseRange(range);
+        RollupGranularity granularity = from.isBefore(to.minusHours(24))
+            ? RollupGranularity.DAY
+            : RollupGranularity.HOUR;
         
-        // Get performance metrics
-        List<PageResult> results = pageResultRepository.findPageResultsInRange(
-            siteId, from, LocalDateTime.now());
-        PerformanceMetrics performance = calculatePerformanceMetrics(results);
+        List<Site> sites = siteRepository.findByEnabledTrue();
+        Map<Long, SiteRollup> totals = rollupRepository.findEnabledSiteTotals(granularity, from, to);
+        Map<Long, SiteStatus> statuses = siteStatusService.getLatest(
+            sites.stream().map(Site::getId).toList());
+        
+        List<FleetSiteSummary> fleet = new ArrayList<>(sites.size());
+        for (Site site : sites) {
+            SiteRollup siteTotals = totals.get(site.getId());
+            SiteStatus latest = statuses.get(site.getId());
+            fleet.add(new FleetSiteSummary(
+                site.getId(),
+                site.getName(),
+                determineStatus(latest == null ? null : latest.lastStatus()),
+                calculateUptime(siteTotals),
+                issuesBySeverity(siteTotals),
+                siteTotals == null ? null : siteTotals.loadPercentile(0.95),
+                latest == null ? null : latest.lastStartedAt()
+            ));
+        }
+        fleet.sort(fleetOrder(sort));
+        return fleet;
+    }
+    
+    private static Comparator<FleetSiteSummary> fleetOrder(String sort) {
+        Comparator<FleetSiteSummary> byName = Comparator.comparing(FleetSiteSummary::siteName,
+            Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER));
+        Comparator<FleetSiteSummary> byUptime = Comparator.comparing(FleetSiteSummary::uptimePercent,
+            Comparator.nullsLast(Comparator.naturalOrder()));
+        return switch (sort) {
+            case "name" -> byName;
+            case "uptime" -> byUptime.thenComparing(byName);
+            case "p95" -> Comparator.comparing(FleetSiteSummary::p95LoadMs,
+                Comparator.nullsLast(Comparator.<Integer>reverseOrder())).thenComparing(byName);
+            default -> Comparator.comparingInt((FleetSiteSummary f) -> HEALTH_ORDER.indexOf(f.status()))
+                .thenComparing(byUptime)
+                .thenComparing(byName);
+        };
+    }
+    
+    private OverviewResponse toOverview(
+            Long siteId, Optional<Site> site, Optional<SiteRollup> rollups,
+            Optional<SiteStatus> status, boolean partial) {
+        // Uptime, issues by severity and percentiles from hourly rollups (merged latency sketches);
+        // a null rollups result means the branch did not complete
+        SiteRollup totals = rollups == null ? null : rollups.orElse(null);
+        Double uptime = rollups == null ? null : calculateUptime(totals);
+        Map<String, Integer> issuesBySeverity = issuesBySeverity(totals);
+        PerformanceMetrics performance = calculatePerformanceMetrics(totals);
         
-        // Get last run
-        List<Run> runs = runRepository.findBySiteIdOrderByStartedAtDesc(siteId);
-        LastRun lastRun = runs.isEmpty() ? null : new LastRun(
-            runs.get(0).getId(),
-            runs.get(0).getStartedAt(),
-            runs.get(0).getStatus().name(),
-            runs.get(0).getCriticalCount(),
-            runs.get(0).getMajorCount(),
-            runs.get(0).getMinorCount()
+        // Last run from the maintained per-site status (no runs scan)
+        SiteStatus latest = status.orElse(null);
+        LastRun lastRun = latest == null ? null : new LastRun(
+            latest.lastRunId(),
+            latest.lastStartedAt(),
+            latest.lastStatus().name(),
+            latest.criticalCount(),
+            latest.majorCount(),
+            latest.minorCount()
         );
         
         return new OverviewResponse(
             siteId,
-            site.getName(),
-            determineStatus(runs.isEmpty() ? null : runs.get(0)),
+            site == null ? null : site.get().getName(),
+            determineStatus(latest == null ? null : latest.lastStatus()),
             uptime,
             issuesBySeverity,
             performance,
-            lastRun
+            lastRun,
+            partial
         );
     }
     
-    public TimeseriesResponse getErrorTimeseries(Long siteId, String range, String bucket) {
+    /**
+     * Série de erros (critical + major) por bucket.
+     *
+     * <p>5m agrega as runs em SQL; 1h/6h/1d somam os rollups, com o primeiro bucket
+     * recortado no início do range. {@code value} é a soma do bucket e, em 5m,
+     * {@code max} é o maior número de erros de uma run.</p>
+     *
+     * @param maxPoints Limite opcional de pontos (downsampling LTTB)
+     */
+    public TimeseriesResponse getErrorTimeseries(Long siteId, String range, String bucket, Integer maxPoints) {
         LocalDateTime from = parseRange(range);
         LocalDateTime to = LocalDateTime.now();
         
-        List<Run> runs = runRepository.findRunsInRange(siteId, from, to);
-        
-        List<DataPoint> dataPoints = runs.stream()
-            .map(r -> new DataPoint(
-                r.getStartedAt(),
-                (double) (r.getCriticalCount() + r.getMajorCount()),
-                "Errors"
-            ))
-            .collect(Collectors.toList());
+        List<DataPoint> dataPoints;
+        if ("5m".equals(bucket)) {
+            // Finer than the rollups: aggregated from runs in SQL
+            dataPoints = runRepository.findErrorBuckets(siteId, from, to).stream()
+                .map(row -> new DataPoint(
+                    toLocalDateTime(row[0]),
+                    toDouble(row[1]),
+                    "Errors",
+                    null,
+                    toDouble(row[2])
+                ))
+                .collect(Collectors.toList());
+        } else {
+            dataPoints = rollupBuckets(siteId, bucket, from, to, true).stream()
+                .map(DashboardService::errorPoint)
+                .collect(Collectors.toList());
+        }
         
-        return new TimeseriesResponse(siteId, from, to, bucket, dataPoints);
+        return new TimeseriesResponse(siteId, from, to, bucket, LttbDownsampler.downsample(dataPoints, maxPoints));
     }
     
-    public TimeseriesResponse getPerfTimeseries(Long siteId, String range, String bucket) {
+    /**
+     * Série de load time por bucket: média, P95 e máximo.
+     *
+     * <p>5m agrega page_results em SQL (P95 exato); 1h/6h/1d usam os rollups (P95 do
+     * sketch de latência mesclado).</p>
+     *
+     * @param maxPoints Limite opcional de pontos (downsampling LTTB)
+     */
+    public TimeseriesResponse getPerfTimeseries(Long siteId, String range, String bucket, Integer maxPoints) {
         LocalDateTime from = parseRange(range);
         LocalDateTime to = LocalDateTime.now();
         
-        List<PageResult> results = pageResultRepository.findPageResultsInRange(siteId, from, to);
+        List<DataPoint> dataPoints;
+        if ("5m".equals(bucket)) {
+            // Finer than the rollups: aggregated from page results in SQL
+            dataPoints = pageResultRepository.findLoadTimeBuckets(siteId, from, to).stream()
+                .map(row -> new DataPoint(
+                    toLocalDateTime(row[0]),
+                    toDouble(row[1]),
+                    "Load Time",
+                    toDouble(row[2]),
+                    toDouble(row[3])
+                ))
+                .collect(Collectors.toList());
+        } else {
+            dataPoints = rollupBuckets(siteId, bucket, from, to, false).stream()
+                .filter(r -> r.avgLoadMs() != null)
+                .map(DashboardService::perfPoint)
+                .collect(Collectors.toList());
+        }
         
-        List<DataPoint> dataPoints = results.stream()
-            .filter(r -> r.getLoadMs() != null)
-            .map(r -> new DataPoint(
-                r.getCreatedAt(),
-                r.getLoadMs().doubleValue(),
-                "Load Time"
-            ))
-            .collect(Collectors.toList());
-        
-        return new TimeseriesResponse(siteId, from, to, bucket, dataPoints);
+        return new TimeseriesResponse(siteId, from, to, bucket, LttbDownsampler.downsample(dataPoints, maxPoints));
     }
     
-    public List<RunSummaryDTO> getRuns(Long siteId, LocalDateTime from, LocalDateTime to) {
-        List<Run> runs = runRepository.findRunsInRange(siteId, from, to);
+    /**
+     * Runs do site em [from, to), mais recentes primeiro, paginadas por keyset em
+     * (started_at, id).
+     * 
+     * <p>Duas queries por página, independente do tamanho do período: a projeção das runs
+     * e as failures de todas as runs da página.</p>
+     * 
+     * @param cursor Cursor retornado pela página anterior (null para a primeira)
+     * @param limit Tamanho da página (1 a {@value #MAX_RUNS_PAGE_SIZE})
+     * @throws IllegalArgumentException se o cursor for inválido
+     */
+    public RunPage getRuns(Long siteId, LocalDateTime from, LocalDateTime to, String cursor, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_RUNS_PAGE_SIZE));
+        
+        LocalDateTime cursorStartedAt = to;
+        long cursorId = Long.MAX_VALUE;
+        if (cursor != null && !cursor.isBlank()) {
+            RunCursor decoded = RunCursor.decode(cursor);
+            cursorStartedAt = decoded.startedAt();
+            cursorId = decoded.id();
+        }
         
-        return runs.stream()
-            .map(r -> {
-                // Force lazy loading of failures
-                r.getFailures().size();
-                
-                // Convert failures to DTOs
-                List<FailureDTO> failureDTOs = r.getFailures().stream()
-                    .map(f -> new FailureDTO(
-                        f.getId(),
-                        f.getSeverity(),
-                        f.getType(),
-                        f.getMessage(),
-                        f.getUrl(),
-                        f.getPage() != null ? f.getPage().getName() : null
-                    ))
-                    .collect(Collectors.toList());
-                
-                return new RunSummaryDTO(
-                    r.getId(),
-                    r.getSite().getId(),
-                    r.getStartedAt(),
-                    r.getEndedAt(),
-                    r.getStatus(),
-                    r.getCriticalCount(),
-                    r.getMajorCount(),
-                    r.getMinorCount(),
-                    r.getSummary(),
-                    failureDTOs
-                );
-            })
+        // One extra row tells whether there is a next page
+        List<RunRepository.RunSummaryView> rows = runRepository.findRunPage(
+            siteId, from, to, cursorStartedAt, cursorId, PageRequest.of(0, pageSize + 1));
+        boolean hasMore = rows.size() > pageSize;
+        if (hasMore) {
+            rows = rows.subList(0, pageSize);
+        }
+        
+        Map<Long, List<FailureDTO>> failuresByRun = new HashMap<>();
+        if (!rows.isEmpty()) {
+            List<Long> runIds = rows.stream().map(RunRepository.RunSummaryView::getId).toList();
+            LocalDateTime oldest = rows.get(rows.size() - 1).getStartedAt();
+            for (FailureRepository.FailureView f : failureRepository.findByRunIds(runIds, oldest)) {
+                failuresByRun.computeIfAbsent(f.getRunId(), id -> new ArrayList<>()).add(new FailureDTO(
+                    f.getId(),
+                    f.getSeverity(),
+                    f.getType(),
+                    f.getMessage(),
+                    f.getUrl(),
+                    f.getPageName()
+                ));
+            }
+        }
+        
+        List<RunSummaryDTO> runs = rows.stream()
+            .map(r -> new RunSummaryDTO(
+                r.getId(),
+                siteId,
+                r.getStartedAt(),
+                r.getEndedAt(),
+                r.getStatus(),
+                r.getCriticalCount(),
+                r.getMajorCount(),
+                r.getMinorCount(),
+                r.getSummary(),
+                failuresByRun.getOrDefault(r.getId(), List.of())
+            ))
             .collect(Collectors.toList());
+        
+        String nextCursor = null;
+        if (hasMore) {
+            RunSummaryDTO last = runs.get(runs.size() - 1);
+            nextCursor = new RunCursor(last.startedAt(), last.id()).encode();
+        }
+        return new RunPage(runs, nextCursor);
     }
     
     private LocalDateTime parseRange(String range) {
@@ -224,47 +494,150 @@ public class DashboardService {
         };
     }
     
-    private Double calculateUptime(Object[] data) {
-        if (data == null || data.length < 2) return 100.0;
-        long total = ((Number) data[0]).longValue();
-        long success = ((Number) data[1]).longValue();
-        return total == 0 ? 100.0 : (success * 100.0 / total);
+    /**
+     * Rollups do site agrupados no bucket pedido: 1d lê os rollups diários; 1h e 6h
+     * leem os horários (6h soma grupos de 6 horas).
+     * 
+     * @param exactCounts Recorta os contadores do primeiro bucket em {@code from} (uma
+     *                    consulta a mais em runs); séries só de latência não precisam
+     */
+    private List<SiteRollup> rollupBuckets(
+            Long siteId, String bucket, LocalDateTime from, LocalDateTime to, boolean exactCounts) {
+        RollupGranularity granularity = "1d".equals(bucket) ? RollupGranularity.DAY : RollupGranularity.HOUR;
+        List<SiteRollup> rollups = rollupRepository.findSiteRollups(siteId, granularity, from, to);
+        if (exactCounts) {
+            rollups = clipLeadingBucket(rollups, from, leadingRuns(siteId, granularity, from));
+        }
+        return "6h".equals(bucket) ? foldSixHours(rollups) : rollups;
     }
     
-    private PerformanceMetrics calculatePerformanceMetrics(List<PageResult> results) {
-        List<Integer> loadTimes = results.stream()
-            .map(PageResult::getLoadMs)
-            .filter(Objects::nonNull)
-            .sorted()
-            .collect(Collectors.toList());
-        
-        List<Integer> ttfbTimes = results.stream()
-            .map(PageResult::getTtfbMs)
-            .filter(Objects::nonNull)
-            .sorted()
+    /**
+     * Contadores das runs entre {@code from} e o fim do bucket que o contém; vazio se
+     * {@code from} já está no início de um bucket.
+     */
+    private Optional<SiteRollup> leadingRuns(Long siteId, RollupGranularity granularity, LocalDateTime from) {
+        if (granularity.truncate(from).equals(from)) {
+            return Optional.empty();
+        }
+        return Optional.of(rollupRepository.findRunTotals(siteId, granularity, from, granularity.nextBucket(from)));
+    }
+    
+    /**
+     * Troca os contadores de runs e falhas do bucket que contém {@code from} pelos das runs
+     * desde {@code from}; a latência do bucket (médias, máximo, sketches) fica inteira.
+     */
+    private static List<SiteRollup> clipLeadingBucket(
+            List<SiteRollup> rollups, LocalDateTime from, Optional<SiteRollup> leadingRuns) {
+        if (rollups.isEmpty() || leadingRuns.isEmpty() || !rollups.get(0).bucketStart().isBefore(from)) {
+            return rollups;
+        }
+        List<SiteRollup> clipped = new ArrayList<>(rollups);
+        clipped.set(0, rollups.get(0).withoutRunCounts().plus(leadingRuns.get()));
+        return clipped;
+    }
+    
+    private static List<SiteRollup> foldSixHours(List<SiteRollup> hourly) {
+        Map<LocalDateTime, SiteRollup> folded = new TreeMap<>();
+        for (SiteRollup row : hourly) {
+            LocalDateTime start = row.bucketStart().withHour(row.bucketStart().getHour() / 6 * 6);
+            folded.merge(start, row.withBucketStart(start), SiteRollup::plus);
+        }
+        return new ArrayList<>(folded.values());
+    }
+    
+    /**
+     * Rollups horários cujo bucket contém ou sucede {@code from}.
+     */
+    private static List<SiteRollup> since(List<SiteRollup> hourly, LocalDateTime from) {
+        LocalDateTime start = RollupGranularity.HOUR.truncate(from);
+        return hourly.stream()
+            .filter(r -> !r.bucketStart().isBefore(start))
             .collect(Collectors.toList());
-        
-        return new PerformanceMetrics(
-            percentile(loadTimes, 50),
-            percentile(loadTimes, 95),
-            percentile(loadTimes, 99),
-            percentile(ttfbTimes, 95)
+    }
+    
+    private static DataPoint errorPoint(SiteRollup r) {
+        return new DataPoint(
+            r.bucketStart(),
+            (double) (r.failuresCritical() + r.failuresMajor()),
+            "Errors"
         );
     }
     
-    private Integer percentile(List<Integer> values, int p) {
-        if (values.isEmpty()) return null;
-        int index = (int) Math.ceil(values.size() * p / 100.0) - 1;
-        return values.get(Math.max(0, Math.min(index, values.size() - 1)));
+    private static DataPoint perfPoint(SiteRollup r) {
+        return new DataPoint(
+            r.bucketStart(),
+            r.avgLoadMs(),
+            "Load Time",
+            toDouble(r.loadPercentile(0.95)),
+            toDouble(r.loadMax())
+        );
+    }
+    
+    private static LocalDateTime toLocalDateTime(Object value) {
+        if (value instanceof Timestamp ts) return ts.toLocalDateTime();
+        return (LocalDateTime) value;
+    }
+    
+    private static Double toDouble(Object value) {
+        return value == null ? null : ((Number) value).doubleValue();
     }
     
-    private String determineStatus(Run lastRun) {
-        if (lastRun == null) return "UNKNOWN";
-        return switch (lastRun.getStatus()) {
+    private Double calculateUptime(SiteRollup totals) {
+        if (totals == null || totals.runsTotal() == 0) return 100.0;
+        return totals.runsSuccess() * 100.0 / totals.runsTotal();
+    }
+    
+    private Map<String, Integer> issuesBySeverity(SiteRollup totals) {
+        Map<String, Integer> issues = new HashMap<>();
+        if (totals == null) return issues;
+        if (totals.failuresCritical() > 0) issues.put("CRITICAL", (int) totals.failuresCritical());
+        if (totals.failuresMajor() > 0) issues.put("MAJOR", (int) totals.failuresMajor());
+        if (totals.failuresMinor() > 0) issues.put("MINOR", (int) totals.failuresMinor());
+        return issues;
+    }
+    
+    private PerformanceMetrics calculatePerformanceMetrics(SiteRollup totals) {
+        if (totals == null) {
+            return new PerformanceMetrics(null, null, null, null);
+        }
+        return new PerformanceMetrics(
+            totals.loadPercentile(0.50),
+            totals.loadPercentile(0.95),
+            totals.loadPercentile(0.99),
+            totals.ttfbPercentile(0.95)
+        );
+    }
+    
+    private String determineStatus(RunStatus lastStatus) {
+        if (lastStatus == null) return "UNKNOWN";
+        return switch (lastStatus) {
             case SUCCESS -> "HEALTHY";
             case WARNING -> "DEGRADED";
             case FAILED -> "DOWN";
             default -> "UNKNOWN";
         };
     }
+    
+    /**
+     * Posição (started_at, id) da última run de uma página, serializada em base64url.
+     */
+    private record RunCursor(LocalDateTime startedAt, long id) {
+        
+        String encode() {
+            String raw = startedAt + "|" + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+        
+        static RunCursor decode(String cursor) {
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                int separator = raw.lastIndexOf('|');
+                return new RunCursor(
+                    LocalDateTime.parse(raw.substring(0, separator)),
+                    Long.parseLong(raw.substring(separator + 1)));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor);
+            }
+        }
+    }
 }
@@ -4,11 +4,24 @@ import com.monitoring.api.domain.entity.*;
 import com.monitoring.api.domain.enums.Severity;
 import com.monitoring.api.domain.repository.*;
 import com.monitoring.api.dto.ingest.*;
+import com.monitoring.api.service.ingest.PendingRun;
+import com.monitoring.api.service.ingest.RollupAggregator;
+import com.monitoring.api.service.ingest.RunBatchWriter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
 /**
  * Service responsável por ingerir resultados de execuções (Runs) enviados pelo monitor-runner.
  * 
@@ -20,12 +33,15 @@ import org.springframework.transaction.annotation.Transactional;
  *   <li>Recebe IngestRunRequest com todos os resultados</li>
  *   <li>Valida que o site existe no banco</li>
  *   <li>Cria entidade Run com status e timestamps</li>
- *   <li>Persiste PageResults (métricas de performance por página)</li>
- *   <li>Persiste Failures (erros detectados)</li>
- *   <li>Persiste RequestErrors (falhas HTTP)</li>
+ *   <li>Monta PageResults (métricas de performance por página)</li>
+ *   <li>Monta Failures (erros detectados)</li>
+ *   <li>Monta RequestErrors (falhas HTTP)</li>
  *   <li>Calcula contadores por severidade (critical, major, minor)</li>
  *   <li>Determina status final da Run (SUCCESS, WARNING, FAILED, ERROR)</li>
- *   <li>Salva Run no banco (cascade persiste relacionamentos)</li>
+ *   <li>Grava Run e linhas filhas em lote via {@link RunBatchWriter} (um INSERT por tabela)</li>
+ *   <li>Atualiza os rollups horários/diários do dashboard via {@link RollupAggregator}</li>
+ *   <li>Atualiza o estado atual do site (última Run) via {@link SiteStatusService}</li>
+ *   <li>Invalida as respostas cacheadas do dashboard do site após o commit ({@link DashboardCache})</li>
  *   <li>Publica evento SSE para clientes conectados (live monitoring)</li>
  * </ol>
  * 
@@ -48,24 +64,26 @@ import org.springframework.transaction.annotation.Transactional;
  * <pre>
  * @Transactional garante atomicidade:
  * - Rollback completo se qualquer parte falhar
- * - Todas as entidades (Run, PageResults, Failures, RequestErrors) persistidas juntas
+ * - Todas as entidades (Run, PageResults, Failures, RequestErrors) e os rollups persistidos juntos
  * - Evento SSE publicado apenas após commit
  * </pre>
  * 
- * <p><b>Relacionamentos Cascata:</b></p>
+ * <p><b>Escrita em Lote:</b></p>
  * <pre>
- * Run (parent)
- *   |-- PageResult (cascade ALL, orphanRemoval)
- *   |-- Failure (cascade ALL, orphanRemoval)
- *   |-- RequestError (cascade ALL, orphanRemoval)
+ * As entidades usam IDENTITY, o que desativa o batching do Hibernate.
+ * O ID da Run é alocado via sequence e todas as linhas são gravadas pelo
+ * RunBatchWriter com JDBC batch (reWriteBatchedInserts no driver):
  * 
- * Apenas Run precisa ser salva explicitamente, os demais cascateiam.
+ * Run (parent)           - 1 INSERT
+ *   |-- PageResult       - 1 INSERT multi-valores
+ *   |-- Failure          - 1 INSERT multi-valores
+ *   |-- RequestError     - 1 INSERT multi-valores
  * </pre>
  * 
  * <p><b>Validações:</b></p>
  * <ul>
  *   <li>siteId deve existir no banco (throws IllegalArgumentException)</li>
- *   <li>pageId (em PageResultDTO) deve existir no banco</li>
+ *   <li>pageId (em PageResultDTO) deve existir no banco (todas as páginas resolvidas em uma query)</li>
  *   <li>Timestamps devem estar presentes (startedAt, endedAt)</li>
  *   <li>Status deve ser válido (enum RunStatus)</li>
  * </ul>
@@ -88,33 +106,37 @@ import org.springframework.transaction.annotation.Transactional;
  * @see PageResult
  * @see Failure
  * @see EventPublisher
+ * @see RunBatchWriter
  */
 @Service
 public class IngestService {
     private static final Logger log = LoggerFactory.getLogger(IngestService.class);
     
-    private final RunRepository runRepository;
     private final SiteRepository siteRepository;
     private final SitePageRepository pageRepository;
-    private final PageResultRepository pageResultRepository;
-    private final FailureRepository failureRepository;
-    private final RequestErrorRepository requestErrorRepository;
+    private final RunBatchWriter runBatchWriter;
+    private final RollupAggregator rollupAggregator;
+    private final SiteStatusService siteStatusService;
+    private final DashboardCache dashboardCache;
+    private final CheckSchedulerService checkSchedulerService;
     private final EventPublisher eventPublisher;
     
     public IngestService(
-            RunRepository runRepository,
             SiteRepository siteRepository,
             SitePageRepository pageRepository,
-            PageResultRepository pageResultRepository,
-            FailureRepository failureRepository,
-            RequestErrorRepository requestErrorRepository,
+            RunBatchWriter runBatchWriter,
+            RollupAggregator rollupAggregator,
+            SiteStatusService siteStatusService,
+            DashboardCache dashboardCache,
+            CheckSchedulerService checkSchedulerService,
             EventPublisher eventPublisher) {
-        this.runRepository = runRepository;
         this.siteRepository = siteRepository;
         this.pageRepository = pageRepository;
-        this.pageResultRepository = pageResultRepository;
-        this.failureRepository = failureRepository;
-        this.requestErrorRepository = requestErrorRepository;
+        this.runBatchWriter = runBatchWriter;
+        this.rollupAggregator = rollupAggregator;
+        this.siteStatusService = siteStatusService;
+        this.dashboardCache = dashboardCache;
+        this.checkSchedulerService = checkSchedulerService;
         this.eventPublisher = eventPublisher;
     }
     
@@ -122,16 +144,90 @@ public class IngestService {
     public IngestRunResponse ingestRun(IngestRunRequest request) {
         log.info("Ingesting run for siteId={}", request.siteId());
         
-        Site site = siteRepository.findById(request.siteId())
-            .orElseThrow(() -> new IllegalArgumentException("Site not found: " + request.siteId()));
+        PendingRun pending = new PendingRun(runBatchWriter.nextRunId(), request, LocalDateTime.now());
+        Run run = ingestBatch(List.of(pending)).get(0);
+        
+        log.info("Run ingested successfully: runId={}", run.getId());
+        
+        // Publish SSE event
+        eventPublisher.publishRunCompleted(run);
+        
+        return new IngestRunResponse(run.getId());
+    }
+    
+    /**
+     * Confere que o site e as páginas referenciadas existem, para que o modo assíncrono
+     * recuse a Run antes de responder 202 (em vez de descartá-la no commit).
+     * 
+     * @throws IllegalArgumentException se o site ou alguma página não existir
+     */
+    @Transactional(readOnly = true)
+    public void validateReferences(IngestRunRequest request) {
+        PendingRun pending = new PendingRun(0L, request, null);
+        if (loadSites(List.of(pending)).isEmpty()) {
+            throw new IllegalArgumentException("Site not found: " + request.siteId());
+        }
+        Map<Long, SitePage> pages = loadPages(List.of(pending));
+        if (request.pageResults() != null) {
+            for (PageResultDTO dto : request.pageResults()) {
+                if (!pages.containsKey(dto.pageId())) {
+                    throw new IllegalArgumentException("Page not found: " + dto.pageId());
+                }
+            }
+        }
+    }
+    
+    /**
+     * Grava um grupo de Runs em uma única transação (commit em grupo do modo assíncrono).
+     * 
+     * <p>Sites e páginas de todas as Runs são resolvidos com uma query cada; as linhas
+     * são gravadas com um INSERT em lote por tabela. Qualquer Run inválida faz rollback
+     * do grupo inteiro. Não publica eventos SSE (responsabilidade do chamador, após o commit).</p>
+     * 
+     * @param batch Runs com IDs já alocados
+     * @return Runs gravadas, na mesma ordem do batch
+     */
+    @Transactional
+    public List<Run> ingestBatch(List<PendingRun> batch) {
+        Map<Long, Site> sites = loadSites(batch);
+        Map<Long, SitePage> pages = loadPages(batch);
+        
+        List<Run> runs = new ArrayList<>(batch.size());
+        for (PendingRun pending : batch) {
+            runs.add(toRun(pending, sites, pages));
+        }
+        
+        // One batched INSERT per table
+        runBatchWriter.write(runs);
         
-        // Create Run entity
+        // Dashboard aggregates, same transaction
+        rollupAggregator.apply(runs);
+        siteStatusService.record(runs);
+        dashboardCache.invalidateSitesAfterCommit(sites.keySet());
+        
+        // Ends the sites' in-flight checks; next scheduled check counts from these runs
+        checkSchedulerService.recordRuns(runs);
+        
+        return runs;
+    }
+    
+    private Run toRun(PendingRun pending, Map<Long, Site> sites, Map<Long, SitePage> pages) {
+        IngestRunRequest request = pending.request();
+        
+        Site site = sites.get(request.siteId());
+        if (site == null) {
+            throw new IllegalArgumentException("Site not found: " + request.siteId());
+        }
+        
+        // Create Run entity (id allocated up front so child rows can be batched)
         Run run = new Run();
+        run.setId(pending.runId());
         run.setSite(site);
         run.setStartedAt(request.startedAt());
         run.setEndedAt(request.endedAt());
         run.setStatus(request.status());
         run.setSummary(request.summary());
+        run.setCreatedAt(pending.receivedAt());
         
         // Count severities
         int critical = 0, major = 0, minor = 0;
@@ -146,13 +242,13 @@ public class IngestService {
         run.setMajorCount(major);
         run.setMinorCount(minor);
         
-        run = runRepository.save(run);
-        
-        // Save page results
+        // Page results
         if (request.pageResults() != null) {
             for (PageResultDTO dto : request.pageResults()) {
-                SitePage page = pageRepository.findById(dto.pageId())
-                    .orElseThrow(() -> new IllegalArgumentException("Page not found: " + dto.pageId()));
+                SitePage page = pages.get(dto.pageId());
+                if (page == null) {
+                    throw new IllegalArgumentException("Page not found: " + dto.pageId());
+                }
                 
                 PageResult pr = new PageResult();
                 pr.setRun(run);
@@ -163,30 +259,30 @@ public class IngestService {
                 pr.setLoadMs(dto.loadMs());
                 pr.setRequestsCount(dto.requestsCount() != null ? dto.requestsCount() : 0);
                 pr.setTotalBytes(dto.totalBytes() != null ? dto.totalBytes() : 0L);
+                pr.setBytesByType(dto.bytesByType());
                 
-                pageResultRepository.save(pr);
+                run.getPageResults().add(pr);
             }
         }
         
-        // Save failures
+        // Failures
         if (request.failures() != null) {
             for (FailureDTO dto : request.failures()) {
                 Failure failure = new Failure();
                 failure.setRun(run);
                 if (dto.pageId() != null) {
-                    SitePage page = pageRepository.findById(dto.pageId()).orElse(null);
-                    failure.setPage(page);
+                    failure.setPage(pages.get(dto.pageId()));
                 }
                 failure.setSeverity(dto.severity());
                 failure.setType(dto.type());
                 failure.setMessage(dto.message());
                 failure.setUrl(dto.url());
                 
-                failureRepository.save(failure);
+                run.getFailures().add(failure);
             }
         }
         
-        // Save request errors
+        // Request errors
         if (request.requestErrors() != null) {
             for (RequestErrorDTO dto : request.requestErrors()) {
                 RequestError re = new RequestError();
@@ -197,15 +293,45 @@ public class IngestService {
                 re.setDurationMs(dto.durationMs());
                 re.setErrorMessage(dto.errorMessage());
                 
-                requestErrorRepository.save(re);
+                run.getRequestErrors().add(re);
             }
         }
         
-        log.info("Run ingested successfully: runId={}", run.getId());
+        return run;
+    }
+    
+    private Map<Long, Site> loadSites(List<PendingRun> batch) {
+        Set<Long> siteIds = batch.stream()
+            .map(pending -> pending.request().siteId())
+            .collect(Collectors.toSet());
         
-        // Publish SSE event
-        eventPublisher.publishRunCompleted(run);
+        return siteRepository.findAllById(siteIds).stream()
+            .collect(Collectors.toMap(Site::getId, Function.identity()));
+    }
+    
+    /**
+     * Resolve todas as páginas referenciadas pelas Runs em uma única query.
+     */
+    private Map<Long, SitePage> loadPages(List<PendingRun> batch) {
+        Set<Long> pageIds = new HashSet<>();
+        for (PendingRun pending : batch) {
+            IngestRunRequest request = pending.request();
+            if (request.pageResults() != null) {
+                request.pageResults().forEach(dto -> pageIds.add(dto.pageId()));
+            }
+            if (request.failures() != null) {
+                request.failures().stream()
+                    .map(FailureDTO::pageId)
+                    .filter(Objects::nonNull)
+                    .forEach(pageIds::add);
+            }
+        }
         
-        return new IngestRunResponse(run.getId());
+        if (pageIds.isEmpty()) {
+            return Map.of();
+        }
+        
+        return pageRepository.findAllById(pageIds).stream()
+            .collect(Collectors.toMap(SitePage::getId, Function.identity()));
     }
 }
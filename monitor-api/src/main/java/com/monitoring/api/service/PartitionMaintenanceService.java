@@ -0,0 +1,130 @@
+package com.monitoring.api.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * Manutenção das partições mensais das tabelas de resultados.
+ * 
+ * <p>runs (por started_at), page_results, failures e request_errors (por created_at)
+ * são particionadas por mês (migration V4). Este service garante que as partições
+ * dos próximos meses existam antes de receberem dados; linhas fora das partições
+ * criadas (ex: runner com relógio adiantado) caem na partição {@code <tabela>_default}
+ * e são movidas para a partição do seu mês, criada na próxima manutenção
+ * ({@code create_monthly_partitions} move as linhas da default antes do ATTACH, V12).</p>
+ * 
+ * <p>Também remove partições inteiramente expiradas (usado pela retenção) com DROP TABLE
+ * da partição. O DROP pega um lock exclusivo breve na tabela pai; {@code lock_timeout}
+ * evita que fique enfileirado atrás de queries longas (a partição é tentada de novo
+ * na próxima execução).</p>
+ * 
+ * <p><b>Configurações:</b></p>
+ * <pre>
+ * monitoring.partitions.months-ahead=3   - Meses futuros pré-criados
+ * </pre>
+ * 
+ * @author Sistema de Monitoramento
+ * @version 1.0
+ * @since 2026-02-02
+ * @see com.monitoring.api.scheduler.PartitionMaintenanceJob
+ * @see RetentionService
+ */
+@Service
+public class PartitionMaintenanceService {
+    private static final Logger log = LoggerFactory.getLogger(PartitionMaintenanceService.class);
+    
+    public static final List<String> PARTITIONED_TABLES =
+        List.of("runs", "page_results", "failures", "request_errors");
+    
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+    
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    
+    @Value("${monitoring.partitions.months-ahead:3}")
+    private int monthsAhead;
+    
+    public PartitionMaintenanceService(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+    }
+    
+    /**
+     * Cria as partições do mês corrente e dos próximos {@code months-ahead} meses.
+     */
+    public void ensureFuturePartitions() {
+        for (String table : PARTITIONED_TABLES) {
+            Integer created = jdbcTemplate.queryForObject(
+                "SELECT create_monthly_partitions(?, CURRENT_DATE, ?)",
+                Integer.class, table, monthsAhead + 1);
+            
+            if (created != null && created > 0) {
+                log.info("Created {} monthly partitions for {}", created, table);
+            }
+        }
+        
+        for (String table : PARTITIONED_TABLES) {
+            relocateDefaultRows(table);
+        }
+    }
+    
+    /**
+     * Cria as partições dos meses que têm linhas na partição default, movendo as linhas.
+     */
+    private void relocateDefaultRows(String table) {
+        String keyColumn = "runs".equals(table) ? "started_at" : "created_at";
+        List<LocalDate> months = jdbcTemplate.queryForList(
+            "SELECT DISTINCT date_trunc('month', " + keyColumn + ")::DATE FROM " + table + "_default",
+            LocalDate.class);
+        
+        for (LocalDate month : months) {
+            log.warn("Moving rows of {} out of {}_default into a new monthly partition", YearMonth.from(month), table);
+            jdbcTemplate.queryForObject("SELECT create_monthly_partitions(?, ?, 1)", Integer.class, table, month);
+        }
+    }
+    
+    /**
+     * Remove as partições mensais cujo mês inteiro é anterior a {@code cutoff}.
+     * 
+     * @param table Tabela particionada
+     * @param cutoff Data limite; o mês que contém o cutoff é mantido
+     * @return Nomes das partições removidas
+     */
+    public List<String> dropPartitionsBefore(String table, LocalDate cutoff) {
+        YearMonth cutoffMonth = YearMonth.from(cutoff);
+        
+        List<String> partitions = jdbcTemplate.queryForList("""
+            SELECT c.relname
+            FROM pg_inherits i
+            JOIN pg_class c ON c.oid = i.inhrelid
+            JOIN pg_class p ON p.oid = i.inhparent
+            WHERE p.relname = ?
+            AND c.relname ~ '_p[0-9]{6}$'
+            ORDER BY c.relname
+            """, String.class, table);
+        
+        List<String> expired = partitions.stream()
+            .filter(name -> YearMonth.parse(name.substring(name.length() - 6), PARTITION_SUFFIX)
+                .isBefore(cutoffMonth))
+            .toList();
+        
+        for (String partition : expired) {
+            log.info("Dropping expired partition {}", partition);
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.execute("SET LOCAL lock_timeout = '5s'");
+                jdbcTemplate.execute("DROP TABLE " + partition);
+            });
+        }
+        
+        return expired;
+    }
+}
@@ -0,0 +1,147 @@
+package com.monitoring.api.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Executa consultas independentes de uma requisição em paralelo, com prazo total.
+ *
+ * <p>Cada consulta roda em uma virtual thread; um semáforo global limita quantas
+ * consultas do fan-out usam conexões ao mesmo tempo, para que o dashboard não esgote o
+ * pool do Hikari usado pela ingestão. A latência passa a ser o máximo dos ramos, não a
+ * soma.</p>
+ *
+ * <p>Um ramo que não termina até o prazo (ou falha) é substituído pelo valor padrão
+ * informado e o lote é marcado como parcial; a consulta continua em background e libera
+ * sua vaga ao terminar.</p>
+ *
+ * <p><b>Configurações:</b></p>
+ * <pre>
+ * monitoring.dashboard.query-concurrency=8     - Consultas simultâneas (orçamento de conexões)
+ * monitoring.dashboard.overview-timeout-ms=2000 - Prazo total de um lote
+ * </pre>
+ *
+ * <p><b>Métricas:</b> {@code monitoring.dashboard.branch.incomplete{branch}} - ramos
+ * substituídos pelo valor padrão.</p>
+ *
+ * @author Sistema de Monitoramento
+ * @version 1.0
+ * @since 2026-02-02
+ * @see DashboardService
+ */
+@Component
+public class QueryFanOut {
+    private static final Logger log = LoggerFactory.getLogger(QueryFanOut.class);
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Semaphore connectionBudget;
+    private final Duration timeout;
+    private final MeterRegistry meterRegistry;
+
+    public QueryFanOut(
+            MeterRegistry meterRegistry,
+            @Value("${monitoring.dashboard.query-concurrency:8}") int queryConcurrency,
+            @Value("${monitoring.dashboard.overview-timeout-ms:2000}") long timeoutMs) {
+        this.meterRegistry = meterRegistry;
+        this.connectionBudget = new Semaphore(queryConcurrency);
+        this.timeout = Duration.ofMillis(timeoutMs);
+    }
+
+    /**
+     * Inicia um lote com prazo contado a partir de agora.
+     */
+    public Batch start() {
+        return new Batch(System.nanoTime() + timeout.toNanos());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Consultas de uma requisição, compartilhando o mesmo prazo.
+     */
+    public final class Batch {
+        private final long deadlineNanos;
+        private volatile boolean partial;
+
+        private Batch(long deadlineNanos) {
+            this.deadlineNanos = deadlineNanos;
+        }
+
+        public <T> Branch<T> submit(String name, Supplier<T> query) {
+            CompletableFuture<T> future = CompletableFuture.supplyAsync(() -> {
+                try {
+                    connectionBudget.acquire();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new CompletionException(e);
+                }
+                try {
+                    return query.get();
+                } finally {
+                    connectionBudget.release();
+                }
+            }, executor);
+            return new Branch<>(this, name, future);
+        }
+
+        public boolean isPartial() {
+            return partial;
+        }
+    }
+
+    /**
+     * Resultado pendente de uma consulta do lote.
+     */
+    public final class Branch<T> {
+        private final Batch batch;
+        private final String name;
+        private final CompletableFuture<T> future;
+
+        private Branch(Batch batch, String name, CompletableFuture<T> future) {
+            this.batch = batch;
+            this.name = name;
+            this.future = future;
+        }
+
+        /**
+         * Aguarda até o prazo do lote. Exceções de negócio ({@link IllegalArgumentException})
+         * são propagadas; timeout e demais falhas retornam o fallback e marcam o lote como parcial.
+         */
+        public T await(T fallback) {
+            long remaining = batch.deadlineNanos - System.nanoTime();
+            try {
+                return future.get(Math.max(0, remaining), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                log.warn("Query branch '{}' missed the deadline, returning partial result", name);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof IllegalArgumentException iae) {
+                    throw iae;
+                }
+                log.warn("Query branch '{}' failed, returning partial result: {}", name, e.getCause().getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            batch.partial = true;
+            meterRegistry.counter("monitoring.dashboard.branch.incomplete", "branch", name).increment();
+            return fallback;
+        }
+    }
+}
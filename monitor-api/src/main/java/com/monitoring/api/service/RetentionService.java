@@ -0,0 +1,187 @@
+package com.monitoring.api.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Purga de dados expirados (runs, page_results, failures, request_errors).
+ *
+ * <p>Executada pelo {@link com.monitoring.api.scheduler.RetentionJob} fora do horário
+ * comercial, em uma única réplica por vez
+ * ({@link com.monitoring.api.service.scheduling.ClusterJobLock}). Remove tudo anterior a {@code monitoring.data-retention-days} em duas etapas:</p>
+ *
+ * <ol>
+ *   <li><b>Partições expiradas:</b> meses inteiros anteriores ao cutoff são removidos com
+ *       DROP da partição (sem DELETE, sem WAL por linha)</li>
+ *   <li><b>Lotes keyset:</b> as linhas restantes do mês do cutoff são apagadas em lotes
+ *       pequenos ordenados por (timestamp, id), cada um em sua própria transação curta,
+ *       com pausa entre lotes</li>
+ * </ol>
+ *
+ * <p>Tabelas filhas são purgadas antes de runs. Cada lote usa um cursor
+ * {@code (timestamp, id)} e nunca revisita tuplas já apagadas.</p>
+ *
+ * <p><b>Configurações:</b></p>
+ * <pre>
+ * monitoring.data-retention-days=30              - Dias mantidos
+ * monitoring.retention.batch-size=1000           - Linhas por DELETE
+ * monitoring.retention.batch-pause-ms=200        - Pausa entre lotes
+ * monitoring.retention.max-runtime-minutes=60    - Interrompe a purga após este tempo
+ * </pre>
+ *
+ * <p><b>Métricas (Micrometer):</b></p>
+ * <pre>
+ * monitoring.retention.rows.purged{table}          - Linhas removidas por DELETE
+ * monitoring.retention.batch{table}                - Duração de cada lote
+ * monitoring.retention.partitions.dropped{table}   - Partições removidas
+ * </pre>
+ *
+ * @author Sistema de Monitoramento
+ * @version 1.0
+ * @since 2026-02-02
+ * @see PartitionMaintenanceService
+ */
+@Service
+public class RetentionService {
+    private static final Logger log = LoggerFactory.getLogger(RetentionService.class);
+
+    // Purge order (children first) and the timestamp column each table is partitioned on
+    private static final Map<String, String> TIMESTAMP_COLUMNS = Map.of(
+        "request_errors", "created_at",
+        "failures", "created_at",
+        "page_results", "created_at",
+        "runs", "started_at"
+    );
+    private static final List<String> PURGE_ORDER =
+        List.of("request_errors", "failures", "page_results", "runs");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PartitionMaintenanceService partitionMaintenanceService;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${monitoring.data-retention-days:30}")
+    private int retentionDays;
+
+    @Value("${monitoring.retention.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${monitoring.retention.batch-pause-ms:200}")
+    private long batchPauseMs;
+
+    @Value("${monitoring.retention.max-runtime-minutes:60}")
+    private long maxRuntimeMinutes;
+
+    public RetentionService(
+            JdbcTemplate jdbcTemplate,
+            PartitionMaintenanceService partitionMaintenanceService,
+            MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.partitionMaintenanceService = partitionMaintenanceService;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public void purgeExpired() {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(retentionDays);
+        Instant deadline = Instant.now().plus(Duration.ofMinutes(maxRuntimeMinutes));
+
+        log.info("Starting retention purge: cutoff={}", cutoff);
+
+        for (String table : PURGE_ORDER) {
+            try {
+                List<String> dropped = partitionMaintenanceService.dropPartitionsBefore(table, cutoff.toLocalDate());
+                meterRegistry.counter("monitoring.retention.partitions.dropped", "table", table)
+                    .increment(dropped.size());
+            } catch (Exception e) {
+                // Rows are still removed by the batched deletes below
+                log.error("Failed to drop expired partitions of {}: {}", table, e.getMessage());
+            }
+        }
+
+        for (String table : PURGE_ORDER) {
+            long purged = purgeTable(table, TIMESTAMP_COLUMNS.get(table), cutoff, deadline);
+            log.info("Retention purge of {}: {} rows deleted", table, purged);
+
+            if (Instant.now().isAfter(deadline)) {
+                log.warn("Retention purge stopped after {} minutes; remaining rows are purged next run",
+                    maxRuntimeMinutes);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Apaga as linhas expiradas de uma tabela em lotes keyset de {@code batchSize}.
+     */
+    private long purgeTable(String table, String tsColumn, LocalDateTime cutoff, Instant deadline) {
+        String boundarySql = "SELECT " + tsColumn + ", id FROM " + table
+            + " WHERE " + tsColumn + " < ? AND (" + tsColumn + ", id) > (?, ?)"
+            + " ORDER BY " + tsColumn + ", id OFFSET ? LIMIT 1";
+        String deleteBatchSql = "DELETE FROM " + table
+            + " WHERE " + tsColumn + " < ? AND (" + tsColumn + ", id) > (?, ?)"
+            + " AND (" + tsColumn + ", id) <= (?, ?)";
+        String deleteRestSql = "DELETE FROM " + table
+            + " WHERE " + tsColumn + " < ? AND (" + tsColumn + ", id) > (?, ?)";
+
+        Timer batchTimer = meterRegistry.timer("monitoring.retention.batch", "table", table);
+        Timestamp cutoffTs = Timestamp.valueOf(cutoff);
+
+        // Keyset cursor: everything up to (lastTs, lastId) is already deleted
+        Timestamp lastTs = Timestamp.valueOf(LocalDateTime.of(1970, 1, 1, 0, 0));
+        long lastId = Long.MIN_VALUE;
+        long purged = 0;
+
+        while (Instant.now().isBefore(deadline)) {
+            List<Map<String, Object>> boundary = jdbcTemplate.queryForList(
+                boundarySql, cutoffTs, lastTs, lastId, batchSize - 1);
+
+            long deleted;
+            long start = System.nanoTime();
+            if (boundary.isEmpty()) {
+                // Fewer than batchSize rows left
+                deleted = jdbcTemplate.update(deleteRestSql, cutoffTs, lastTs, lastId);
+            } else {
+                Timestamp upperTs = (Timestamp) boundary.get(0).get(tsColumn);
+                long upperId = ((Number) boundary.get(0).get("id")).longValue();
+                deleted = jdbcTemplate.update(deleteBatchSql, cutoffTs, lastTs, lastId, upperTs, upperId);
+                lastTs = upperTs;
+                lastId = upperId;
+            }
+            batchTimer.record(Duration.ofNanos(System.nanoTime() - start));
+
+            purged += deleted;
+            meterRegistry.counter("monitoring.retention.rows.purged", "table", table).increment(deleted);
+
+            if (boundary.isEmpty()) {
+                break;
+            }
+
+            if (!pause()) {
+                break;
+            }
+        }
+
+        return purged;
+    }
+
+    private boolean pause() {
+        try {
+            Thread.sleep(batchPauseMs);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
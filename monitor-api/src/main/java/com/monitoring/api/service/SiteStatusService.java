@@ -0,0 +1,190 @@
+package com.monitoring.api.service;
+
+import com.monitoring.api.domain.entity.Run;
+import com.monitoring.api.domain.enums.RunStatus;
+import com.monitoring.api.domain.repository.SiteStatusRepository;
+import com.monitoring.api.domain.status.SiteStatus;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Estado atual (última Run) de cada site, sem consultar a tabela runs.
+ *
+ * <p>Mantido em memória e na tabela site_status:</p>
+ * <ul>
+ *   <li><b>Ingestão:</b> {@link #record} faz upsert de site_status na mesma transação das
+ *       Runs e atualiza o mapa em memória apenas após o commit</li>
+ *   <li><b>Leitura:</b> {@link #getLatest} lê do mapa; sites ausentes (ex: ingeridos por
+ *       outra instância) são buscados em site_status por chave primária</li>
+ *   <li><b>Outras réplicas:</b> {@link #refresh} relê site_status a cada
+ *       {@code monitoring.site-status.refresh-seconds} (SiteStatusRefreshJob), então
+ *       Runs ingeridas em outra réplica aparecem aqui em no máximo esse intervalo</li>
+ *   <li><b>Restart:</b> o mapa é recarregado de site_status na inicialização</li>
+ * </ul>
+ *
+ * <p>Tanto o mapa quanto a tabela só avançam para Runs com started_at igual ou mais
+ * recente; Runs atrasadas não regridem o estado.</p>
+ *
+ * @author Sistema de Monitoramento
+ * @version 1.0
+ * @since 2026-02-02
+ * @see SiteStatusRepository
+ */
+@Service
+public class SiteStatusService {
+    private static final Logger log = LoggerFactory.getLogger(SiteStatusService.class);
+
+    private final SiteStatusRepository siteStatusRepository;
+    private final Map<Long, SiteStatus> latest = new ConcurrentHashMap<>();
+
+    public SiteStatusService(SiteStatusRepository siteStatusRepository) {
+        this.siteStatusRepository = siteStatusRepository;
+    }
+
+    @PostConstruct
+    public void load() {
+        refresh();
+        log.info("Loaded latest status of {} sites", latest.size());
+    }
+
+    /**
+     * Relê site_status, trazendo Runs ingeridas por outras réplicas (o mapa só avança).
+     * Chamado periodicamente pelo SiteStatusRefreshJob.
+     * 
+     * @return Sites cujo status em memória mudou
+     */
+    public Set<Long> refresh() {
+        Set<Long> changed = new HashSet<>();
+        for (SiteStatus stored : siteStatusRepository.findAll()) {
+            if (remember(stored)) {
+                changed.add(stored.siteId());
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Estado em memória, sem consultar o banco (para caminhos quentes como o scheduler).
+     */
+    public Optional<SiteStatus> getCached(Long siteId) {
+        return Optional.ofNullable(latest.get(siteId));
+    }
+
+    public Optional<SiteStatus> getLatest(Long siteId) {
+        SiteStatus status = latest.get(siteId);
+        if (status != null) {
+            return Optional.of(status);
+        }
+        Optional<SiteStatus> stored = siteStatusRepository.findBySiteId(siteId);
+        stored.ifPresent(this::remember);
+        return stored;
+    }
+
+    /**
+     * Estado de vários sites: lidos do mapa; os ausentes são buscados em site_status
+     * em uma única consulta. Sites sem Run ficam fora do resultado.
+     */
+    public Map<Long, SiteStatus> getLatest(Collection<Long> siteIds) {
+        Map<Long, SiteStatus> result = new HashMap<>();
+        List<Long> missing = new ArrayList<>();
+        for (Long siteId : siteIds) {
+            SiteStatus status = latest.get(siteId);
+            if (status != null) {
+                result.put(siteId, status);
+            } else {
+                missing.add(siteId);
+            }
+        }
+        if (!missing.isEmpty()) {
+            for (SiteStatus stored : siteStatusRepository.findBySiteIds(missing)) {
+                remember(stored);
+                result.put(stored.siteId(), stored);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Registra as Runs de um lote. Deve ser chamado dentro da transação da ingestão.
+     */
+    public void record(List<Run> runs) {
+        // Runs per site in start order, sites sorted so concurrent ingests lock rows in the same order
+        Map<Long, List<Run>> bySite = new TreeMap<>();
+        for (Run run : runs) {
+            bySite.computeIfAbsent(run.getSite().getId(), id -> new ArrayList<>()).add(run);
+        }
+
+        List<SiteStatus> statuses = new ArrayList<>(bySite.size());
+        Set<Long> continuingStreaks = new HashSet<>();
+        for (List<Run> siteRuns : bySite.values()) {
+            siteRuns.sort(Comparator.comparing(Run::getStartedAt));
+            int streak = 0;
+            for (Run run : siteRuns) {
+                streak = run.getStatus() == RunStatus.SUCCESS ? streak + 1 : 0;
+            }
+            Run newest = siteRuns.get(siteRuns.size() - 1);
+            statuses.add(toStatus(newest, streak));
+            if (streak == siteRuns.size()) {
+                continuingStreaks.add(newest.getSite().getId());
+            }
+        }
+        siteStatusRepository.upsert(statuses, continuingStreaks);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    rememberBatch(statuses, continuingStreaks);
+                }
+            });
+        } else {
+            rememberBatch(statuses, continuingStreaks);
+        }
+    }
+
+    private void rememberBatch(List<SiteStatus> statuses, Set<Long> continuingStreaks) {
+        for (SiteStatus status : statuses) {
+            SiteStatus known = latest.get(status.siteId());
+            // Approximate under concurrent ingest elsewhere; refresh() brings the stored count
+            remember(continuingStreaks.contains(status.siteId()) && known != null
+                ? status.withConsecutiveSuccesses(known.consecutiveSuccesses() + status.consecutiveSuccesses())
+                : status);
+        }
+    }
+
+    private boolean remember(SiteStatus status) {
+        SiteStatus before = latest.get(status.siteId());
+        SiteStatus after = latest.merge(status.siteId(), status,
+            (current, incoming) -> incoming.isNewerThan(current) ? incoming : current);
+        return !after.equals(before);
+    }
+
+    private SiteStatus toStatus(Run run, int consecutiveSuccesses) {
+        return new SiteStatus(
+            run.getSite().getId(),
+            run.getId(),
+            run.getStartedAt(),
+            run.getStatus(),
+            run.getCriticalCount(),
+            run.getMajorCount(),
+            run.getMinorCount(),
+            consecutiveSuccesses
+        );
+    }
+}
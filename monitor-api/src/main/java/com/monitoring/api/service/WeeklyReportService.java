@@ -1,8 +1,9 @@
 package com.monitoring.api.service;
 
-import com.monitoring.api.domain.entity.PageResult;
 import com.monitoring.api.domain.entity.Site;
+import com.monitoring.api.domain.enums.RollupGranularity;
 import com.monitoring.api.domain.repository.*;
+import com.monitoring.api.domain.rollup.SiteRollup;
 import com.monitoring.api.dto.report.*;
 import com.monitoring.api.service.email.EmailSenderService;
 import org.slf4j.Logger;
@@ -25,6 +26,7 @@ public class WeeklyReportService {
     private final PageResultRepository pageResultRepository;
     private final FailureRepository failureRepository;
     private final RequestErrorRepository requestErrorRepository;
+    private final RollupRepository rollupRepository;
     private final EmailSenderService emailSender;
     private final TemplateEngine templateEngine;
     
@@ -34,6 +36,7 @@ public class WeeklyReportService {
             PageResultRepository pageResultRepository,
             FailureRepository failureRepository,
             RequestErrorRepository requestErrorRepository,
+            RollupRepository rollupRepository,
             EmailSenderService emailSender,
             TemplateEngine templateEngine) {
         this.siteRepository = siteRepository;
@@ -41,6 +44,7 @@ public class WeeklyReportService {
         this.pageResultRepository = pageResultRepository;
         this.failureRepository = failureRepository;
         this.requestErrorRepository = requestErrorRepository;
+        this.rollupRepository = rollupRepository;
         this.emailSender = emailSender;
         this.templateEngine = templateEngine;
     }
@@ -84,12 +88,9 @@ public class WeeklyReportService {
             failuresBySeverity.put(row[0].toString(), ((Number) row[1]).intValue());
         }
         
-        // Get performance metrics
-        List<PageResult> results = pageResultRepository.findPageResultsInRange(site.getId(), from, to);
-        PerformanceData performance = calculatePerformance(results);
-        
-        List<PageResult> prevResults = pageResultRepository.findPageResultsInRange(site.getId(), prevFrom, prevTo);
-        PerformanceData prevPerformance = calculatePerformance(prevResults);
+        // Get performance metrics (merged daily latency sketches)
+        PerformanceData performance = calculatePerformance(site.getId(), from, to);
+        PerformanceData prevPerformance = calculatePerformance(site.getId(), prevFrom, prevTo);
         
         // Get top issues
         List<Object[]> issuesData = failureRepository.findTopRecurringIssues(site.getId(), from, 5);
@@ -161,28 +162,16 @@ public class WeeklyReportService {
         return total == 0 ? 100.0 : (success * 100.0 / total);
     }
     
-    private PerformanceData calculatePerformance(List<PageResult> results) {
-        List<Integer> loadTimes = results.stream()
-            .map(PageResult::getLoadMs)
-            .filter(Objects::nonNull)
-            .sorted()
-            .collect(Collectors.toList());
-        
-        List<Integer> ttfbTimes = results.stream()
-            .map(PageResult::getTtfbMs)
-            .filter(Objects::nonNull)
-            .sorted()
-            .collect(Collectors.toList());
-        
+    private PerformanceData calculatePerformance(Long siteId, LocalDateTime from, LocalDateTime to) {
+        SiteRollup totals = rollupRepository.findSiteRollups(siteId, RollupGranularity.DAY, from, to).stream()
+            .reduce(SiteRollup::plus)
+            .orElse(null);
+        if (totals == null) {
+            return new PerformanceData(null, null);
+        }
         return new PerformanceData(
-            percentile(loadTimes, 95),
-            percentile(ttfbTimes, 95)
+            totals.loadPercentile(0.95),
+            totals.ttfbPercentile(0.95)
         );
     }
-    
-    private Integer percentile(List<Integer> values, int p) {
-        if (values.isEmpty()) return null;
-        int index = (int) Math.ceil(values.size() * p / 100.0) - 1;
-        return values.get(Math.max(0, Math.min(index, values.size() - 1)));
-    }
 }
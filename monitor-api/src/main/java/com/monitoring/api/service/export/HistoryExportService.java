@@ -0,0 +1,256 @@
+package com.monitoring.api.service.export;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Locale;
+
+/**
+ * Exportação em streaming do histórico de um site (runs, page results, failures).
+ *
+ * <p>As linhas são lidas com cursor no servidor (JDBC com fetch size, dentro de uma
+ * transação somente leitura, requisito do driver PostgreSQL) e escritas direto na
+ * resposta, uma a uma: a memória usada não depende do tamanho do período.</p>
+ *
+ * <p><b>Formatos:</b></p>
+ * <pre>
+ * ndjson - Um objeto JSON por linha; nomes de campo = colunas (snake_case)
+ * csv    - Cabeçalho + uma linha por registro (RFC 4180)
+ * </pre>
+ *
+ * <p><b>Datasets</b> (ordenados por started_at da run):</p>
+ * <pre>
+ * runs          - Runs do site
+ * page-results  - Métricas por página, com started_at da run e nome da página
+ * failures      - Failures, com started_at da run e nome da página
+ * </pre>
+ *
+ * @author Sistema de Monitoramento
+ * @version 1.0
+ * @since 2026-02-02
+ */
+@Service
+public class HistoryExportService {
+    private static final Logger log = LoggerFactory.getLogger(HistoryExportService.class);
+
+    public enum Dataset {
+        RUNS("""
+            SELECT r.id, r.site_id, r.started_at, r.ended_at, r.status,
+                   r.critical_count, r.major_count, r.minor_count, r.summary
+            FROM runs r
+            WHERE r.site_id = ? AND r.started_at >= ? AND r.started_at < ?
+            ORDER BY r.started_at, r.id
+            """, false),
+        PAGE_RESULTS("""
+            SELECT pr.id, pr.run_id, r.started_at AS run_started_at, pr.page_id, p.name AS page_name,
+                   pr.final_url, pr.ttfb_ms, pr.dom_ms, pr.load_ms, pr.requests_count,
+                   pr.total_bytes, pr.bytes_by_type
+            FROM page_results pr
+            JOIN runs r ON r.id = pr.run_id
+            LEFT JOIN site_pages p ON p.id = pr.page_id
+            WHERE r.site_id = ? AND r.started_at >= ? AND r.started_at < ?
+            AND pr.created_at >= ?
+            ORDER BY r.started_at, pr.id
+            """, true),
+        FAILURES("""
+            SELECT f.id, f.run_id, r.started_at AS run_started_at, f.page_id, p.name AS page_name,
+                   f.severity, f.type, f.message, f.url
+            FROM failures f
+            JOIN runs r ON r.id = f.run_id
+            LEFT JOIN site_pages p ON p.id = f.page_id
+            WHERE r.site_id = ? AND r.started_at >= ? AND r.started_at < ?
+            AND f.created_at >= ?
+            ORDER BY r.started_at, f.id
+            """, true);
+
+        private final String sql;
+        private final boolean childTable;
+
+        Dataset(String sql, boolean childTable) {
+            this.sql = sql;
+            this.childTable = childTable;
+        }
+
+        public static Dataset fromPath(String path) {
+            return valueOf(path.toUpperCase(Locale.ROOT).replace('-', '_'));
+        }
+    }
+
+    public enum Format {
+        NDJSON, CSV;
+
+        public static Format fromParam(String value) {
+            return valueOf(value.toUpperCase(Locale.ROOT));
+        }
+    }
+
+    private final JdbcTemplate cursorJdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ObjectMapper objectMapper;
+
+    public HistoryExportService(
+            DataSource dataSource,
+            PlatformTransactionManager transactionManager,
+            ObjectMapper objectMapper,
+            @Value("${monitoring.export.fetch-size:1000}") int fetchSize) {
+        this.cursorJdbcTemplate = new JdbcTemplate(dataSource);
+        this.cursorJdbcTemplate.setFetchSize(fetchSize);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Escreve o dataset do site em [from, to) no stream, no formato pedido.
+     *
+     * @return Número de registros exportados
+     */
+    public long export(Dataset dataset, Format format, Long siteId,
+                       LocalDateTime from, LocalDateTime to, OutputStream out) throws IOException {
+        RowWriter writer = format == Format.NDJSON ? new NdjsonWriter(out) : new CsvWriter(out);
+
+        // Child rows are ingested after their run started: created_at >= from prunes partitions
+        Object[] args = dataset.childTable
+            ? new Object[] { siteId, Timestamp.valueOf(from), Timestamp.valueOf(to), Timestamp.valueOf(from) }
+            : new Object[] { siteId, Timestamp.valueOf(from), Timestamp.valueOf(to) };
+
+        long count;
+        try {
+            count = readOnlyTransaction.execute(status ->
+                cursorJdbcTemplate.query(dataset.sql, (ResultSetExtractor<Long>) rs -> {
+                    long rows = 0;
+                    try {
+                        writer.header(rs.getMetaData());
+                        while (rs.next()) {
+                            writer.row(rs);
+                            rows++;
+                        }
+                        writer.finish();
+                    } catch (IOException e) {
+                        // Client went away: abort the cursor
+                        throw new UncheckedIOException(e);
+                    }
+                    return rows;
+                }, args));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        log.info("Exported {} {} rows for siteId={} ({} to {})", count, dataset, siteId, from, to);
+        return count;
+    }
+
+    private interface RowWriter {
+        void header(ResultSetMetaData meta) throws SQLException, IOException;
+
+        void row(ResultSet rs) throws SQLException, IOException;
+
+        void finish() throws IOException;
+    }
+
+    private class NdjsonWriter implements RowWriter {
+        private final JsonGenerator generator;
+
+        NdjsonWriter(OutputStream out) throws IOException {
+            this.generator = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8);
+            this.generator.setRootValueSeparator(null);
+        }
+
+        @Override
+        public void header(ResultSetMetaData meta) {
+        }
+
+        @Override
+        public void row(ResultSet rs) throws SQLException, IOException {
+            ResultSetMetaData meta = rs.getMetaData();
+            generator.writeStartObject();
+            for (int i = 1; i <= meta.getColumnCount(); i++) {
+                generator.writeFieldName(meta.getColumnLabel(i));
+                Object value = rs.getObject(i);
+                if (value == null) {
+                    generator.writeNull();
+                } else if ("jsonb".equals(meta.getColumnTypeName(i))) {
+                    generator.writeRawValue(rs.getString(i));
+                } else if (value instanceof Timestamp ts) {
+                    generator.writeString(ts.toLocalDateTime().toString());
+                } else {
+                    generator.writeObject(value);
+                }
+            }
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        public void finish() throws IOException {
+            generator.flush();
+        }
+    }
+
+    private static class CsvWriter implements RowWriter {
+        private final Writer writer;
+
+        CsvWriter(OutputStream out) {
+            this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public void header(ResultSetMetaData meta) throws SQLException, IOException {
+            for (int i = 1; i <= meta.getColumnCount(); i++) {
+                if (i > 1) writer.write(',');
+                writer.write(escape(meta.getColumnLabel(i)));
+            }
+            writer.write("\r\n");
+        }
+
+        @Override
+        public void row(ResultSet rs) throws SQLException, IOException {
+            int columns = rs.getMetaData().getColumnCount();
+            for (int i = 1; i <= columns; i++) {
+                if (i > 1) writer.write(',');
+                Object value = rs.getObject(i);
+                if (value instanceof Timestamp ts) {
+                    writer.write(ts.toLocalDateTime().toString());
+                } else if (value != null) {
+                    writer.write(escape(rs.getString(i)));
+                }
+            }
+            writer.write("\r\n");
+        }
+
+        @Override
+        public void finish() throws IOException {
+            writer.flush();
+        }
+
+        private static String escape(String value) {
+            if (value.indexOf(',') < 0 && value.indexOf('"') < 0
+                    && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+                return value;
+            }
+            return '"' + value.replace("\"", "\"\"") + '"';
+        }
+    }
+}
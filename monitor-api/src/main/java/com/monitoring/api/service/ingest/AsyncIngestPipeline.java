@@ -0,0 +1,341 @@
+package com.monitoring.api.service.ingest;
+
+import com.monitoring.api.domain.entity.Run;
+import com.monitoring.api.dto.ingest.IngestRunRequest;
+import com.monitoring.api.service.EventPublisher;
+import com.monitoring.api.service.IngestService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+import java.sql.SQLException;
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTransientException;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pipeline de ingestão assíncrona com commit em grupo.
+ *
+ * <p>Ativo com {@code monitoring.ingest.mode=async}. O controller valida o payload,
+ * aloca o ID da Run e enfileira em um buffer limitado; uma única thread de escrita
+ * drena o buffer e grava até {@code max-batch-size} Runs por transação via
+ * {@link IngestService#ingestBatch}.</p>
+ *
+ * <p><b>Fluxo:</b></p>
+ * <ol>
+ *   <li>O controller confere que site e páginas existem antes de aceitar a Run</li>
+ *   <li>{@link #submit} aloca o ID (em blocos, via sequence) e enfileira</li>
+ *   <li>Buffer cheio: submit retorna vazio e o controller responde 429</li>
+ *   <li>Writer drena o que estiver no buffer (até max-batch-size) e faz um commit</li>
+ *   <li>Após o commit: completa os futures e publica os eventos SSE</li>
+ *   <li>Falha transitória (conexão, pool, timeout, deadlock): o grupo continua na
+ *       frente do buffer e o commit é repetido com backoff exponencial; enquanto isso o
+ *       buffer enche e novas Runs recebem 429</li>
+ *   <li>Erro de dados no grupo: regrava Run a Run para isolar e descartar apenas a Run inválida</li>
+ * </ol>
+ *
+ * <p><b>Durabilidade ({@code monitoring.ingest.durability}):</b></p>
+ * <pre>
+ * enqueue - 202 assim que a Run entra no buffer. Runs ainda no buffer se perdem
+ *           em crash do processo (shutdown normal drena o buffer).
+ * commit  - Resposta somente após o commit do grupo. Nada confirmado é perdido;
+ *           ainda se beneficia do commit em grupo sob carga.
+ * </pre>
+ *
+ * <p><b>Configurações:</b></p>
+ * <pre>
+ * monitoring.ingest.mode=sync               - sync | async
+ * monitoring.ingest.durability=enqueue      - enqueue | commit
+ * monitoring.ingest.queue-capacity=1000     - Tamanho do buffer
+ * monitoring.ingest.max-batch-size=100      - Runs por transação
+ * monitoring.ingest.commit-timeout-ms=10000 - Espera máxima no modo commit
+ * monitoring.ingest.retry-initial-backoff-ms=500 - Primeira espera após falha transitória
+ * monitoring.ingest.retry-max-backoff-ms=30000   - Espera máxima entre tentativas
+ * </pre>
+ *
+ * <p><b>Métricas (Micrometer):</b></p>
+ * <pre>
+ * monitoring.ingest.queue.depth     - Runs aguardando no buffer
+ * monitoring.ingest.commit          - Latência do commit de um grupo
+ * monitoring.ingest.batch.size      - Runs por commit
+ * monitoring.ingest.rejected        - Runs recusadas por buffer cheio (429)
+ * monitoring.ingest.retried         - Commits repetidos após falha transitória
+ * monitoring.ingest.dropped         - Runs descartadas por erro de dados
+ * </pre>
+ *
+ * @author Sistema de Monitoramento
+ * @version 1.0
+ * @since 2026-02-02
+ * @see IngestService
+ * @see RunBatchWriter
+ */
+@Component
+public class AsyncIngestPipeline {
+    private static final Logger log = LoggerFactory.getLogger(AsyncIngestPipeline.class);
+
+    private static final int ID_BLOCK_SIZE = 50;
+
+    private final IngestService ingestService;
+    private final RunBatchWriter runBatchWriter;
+    private final EventPublisher eventPublisher;
+    private final MeterRegistry meterRegistry;
+
+    private final ArrayDeque<Long> runIds = new ArrayDeque<>();
+
+    private BlockingQueue<QueuedRun> queue;
+    private Thread writer;
+    private volatile boolean running;
+
+    private Timer commitTimer;
+    private DistributionSummary batchSize;
+    private Counter rejected;
+    private Counter retried;
+    private Counter dropped;
+
+    @Value("${monitoring.ingest.mode:sync}")
+    private String mode;
+
+    @Value("${monitoring.ingest.durability:enqueue}")
+    private String durability;
+
+    @Value("${monitoring.ingest.queue-capacity:1000}")
+    private int queueCapacity;
+
+    @Value("${monitoring.ingest.max-batch-size:100}")
+    private int maxBatchSize;
+
+    @Value("${monitoring.ingest.commit-timeout-ms:10000}")
+    private long commitTimeoutMs;
+
+    @Value("${monitoring.ingest.retry-initial-backoff-ms:500}")
+    private long retryInitialBackoffMs;
+
+    @Value("${monitoring.ingest.retry-max-backoff-ms:30000}")
+    private long retryMaxBackoffMs;
+
+    public AsyncIngestPipeline(
+            IngestService ingestService,
+            RunBatchWriter runBatchWriter,
+            EventPublisher eventPublisher,
+            MeterRegistry meterRegistry) {
+        this.ingestService = ingestService;
+        this.runBatchWriter = runBatchWriter;
+        this.eventPublisher = eventPublisher;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!isEnabled()) {
+            return;
+        }
+
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        commitTimer = meterRegistry.timer("monitoring.ingest.commit");
+        batchSize = meterRegistry.summary("monitoring.ingest.batch.size");
+        rejected = meterRegistry.counter("monitoring.ingest.rejected");
+        retried = meterRegistry.counter("monitoring.ingest.retried");
+        dropped = meterRegistry.counter("monitoring.ingest.dropped");
+        Gauge.builder("monitoring.ingest.queue.depth", queue, BlockingQueue::size).register(meterRegistry);
+
+        running = true;
+        writer = new Thread(this::writeLoop, "ingest-writer");
+        writer.start();
+
+        log.info("Async ingest enabled: capacity={}, maxBatchSize={}, durability={}",
+            queueCapacity, maxBatchSize, durability);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (writer == null) {
+            return;
+        }
+
+        // Writer drains whatever is still buffered before exiting
+        running = false;
+        writer.join(commitTimeoutMs);
+        if (!queue.isEmpty()) {
+            log.warn("Ingest writer stopped with {} runs still buffered", queue.size());
+        }
+    }
+
+    public boolean isEnabled() {
+        return "async".equalsIgnoreCase(mode);
+    }
+
+    /**
+     * Com durabilidade {@code commit}, o chamador deve aguardar {@link QueuedRun#committed()}.
+     */
+    public boolean isCommitDurability() {
+        return "commit".equalsIgnoreCase(durability);
+    }
+
+    public long getCommitTimeoutMs() {
+        return commitTimeoutMs;
+    }
+
+    /**
+     * Aloca o ID e enfileira a Run para gravação.
+     *
+     * @param request Payload já validado
+     * @return Run enfileirada, ou vazio se o buffer estiver cheio
+     */
+    public Optional<QueuedRun> submit(IngestRunRequest request) {
+        if (queue.remainingCapacity() == 0) {
+            rejected.increment();
+            return Optional.empty();
+        }
+
+        PendingRun pending = new PendingRun(nextRunId(), request, LocalDateTime.now());
+        QueuedRun queued = new QueuedRun(pending, new CompletableFuture<>());
+
+        if (!queue.offer(queued)) {
+            rejected.increment();
+            return Optional.empty();
+        }
+        return Optional.of(queued);
+    }
+
+    private synchronized long nextRunId() {
+        if (runIds.isEmpty()) {
+            runIds.addAll(runBatchWriter.nextRunIds(ID_BLOCK_SIZE));
+        }
+        return runIds.poll();
+    }
+
+    private void writeLoop() {
+        List<QueuedRun> batch = new ArrayList<>(maxBatchSize);
+
+        while (running || !queue.isEmpty()) {
+            try {
+                QueuedRun first = queue.poll(500, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+
+                batch.add(first);
+                queue.drainTo(batch, maxBatchSize - 1);
+                commit(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                log.error("Unexpected error in ingest writer", e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void commit(List<QueuedRun> batch) throws InterruptedException {
+        List<PendingRun> pending = batch.stream().map(QueuedRun::pending).toList();
+        long backoffMs = retryInitialBackoffMs;
+
+        while (true) {
+            try {
+                List<Run> runs = commitTimer.recordCallable(() -> ingestService.ingestBatch(pending));
+                batchSize.record(batch.size());
+                completed(batch, runs);
+                log.debug("Committed {} runs", batch.size());
+                return;
+            } catch (Exception e) {
+                if (isTransient(e)) {
+                    if (!running) {
+                        // Shutting down: nothing left to wait for
+                        batch.forEach(queued -> failed(queued, e));
+                        return;
+                    }
+                    // Already acknowledged runs stay at the head of the buffer until the database is back
+                    retried.increment();
+                    log.warn("Commit of {} runs failed with a transient error, retrying in {}ms: {}",
+                        batch.size(), backoffMs, e.getMessage());
+                    Thread.sleep(backoffMs);
+                    backoffMs = Math.min(backoffMs * 2, retryMaxBackoffMs);
+                    continue;
+                }
+
+                if (batch.size() == 1) {
+                    failed(batch.get(0), e);
+                    return;
+                }
+
+                // Isolate the offending run(s): one transaction per run
+                log.warn("Group commit of {} runs failed, retrying individually: {}", batch.size(), e.getMessage());
+                for (QueuedRun queued : batch) {
+                    commit(List.of(queued));
+                }
+                return;
+            }
+        }
+    }
+
+    /**
+     * Falhas de infraestrutura (banco indisponível, pool esgotado, timeout, deadlock), que
+     * passam sozinhas; as demais são tratadas como erro de dados da Run.
+     */
+    private static boolean isTransient(Throwable e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof TransientDataAccessException
+                    || t instanceof RecoverableDataAccessException
+                    || t instanceof DataAccessResourceFailureException
+                    || t instanceof CannotCreateTransactionException
+                    || t instanceof SQLTransientException
+                    || t instanceof SQLRecoverableException) {
+                return true;
+            }
+            // PostgreSQL connection exception / insufficient resources / operator intervention
+            if (t instanceof SQLException sql && sql.getSQLState() != null
+                    && (sql.getSQLState().startsWith("08") || sql.getSQLState().startsWith("53")
+                        || sql.getSQLState().startsWith("57P"))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void completed(List<QueuedRun> batch, List<Run> runs) {
+        for (int i = 0; i < batch.size(); i++) {
+            Run run = runs.get(i);
+            batch.get(i).committed().complete(run.getId());
+
+            try {
+                eventPublisher.publishRunCompleted(run);
+            } catch (Exception e) {
+                log.warn("Failed to publish run_completed for runId={}: {}", run.getId(), e.getMessage());
+            }
+        }
+    }
+
+    private void failed(QueuedRun queued, Exception e) {
+        dropped.increment();
+        log.error("Dropping run {} for siteId={}: {}",
+            queued.pending().runId(), queued.pending().request().siteId(), e.getMessage());
+        queued.committed().completeExceptionally(e);
+    }
+
+    /**
+     * Run no buffer e o future completado com o ID após o commit.
+     */
+    public record QueuedRun(PendingRun pending, CompletableFuture<Long> committed) {}
+}
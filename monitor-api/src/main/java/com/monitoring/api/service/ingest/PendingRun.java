@@ -0,0 +1,18 @@
+package com.monitoring.api.service.ingest;
+
+import com.monitoring.api.dto.ingest.IngestRunRequest;
+
+import java.time.LocalDateTime;
+
+/**
+ * Run recebida do runner, com ID já alocado, aguardando gravação.
+ *
+ * @param runId ID alocado em runs_id_seq
+ * @param request Payload original da ingestão
+ * @param receivedAt Momento do recebimento (usado como created_at das linhas)
+ */
+public record PendingRun(
+    long runId,
+    IngestRunRequest request,
+    LocalDateTime receivedAt
+) {}
@@ -0,0 +1,179 @@
+package com.monitoring.api.service.ingest;
+
+import com.monitoring.api.domain.entity.Failure;
+import com.monitoring.api.domain.entity.PageResult;
+import com.monitoring.api.domain.entity.Run;
+import com.monitoring.api.domain.enums.RollupGranularity;
+import com.monitoring.api.domain.enums.RunStatus;
+import com.monitoring.api.domain.enums.Severity;
+import com.monitoring.api.domain.repository.RollupRepository;
+import com.monitoring.api.domain.rollup.LatencySketch;
+import com.monitoring.api.domain.rollup.PageRollup;
+import com.monitoring.api.domain.rollup.SiteRollup;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Mantém site_rollups e page_rollups atualizados na ingestão.
+ *
+ * <p>Os deltas de um lote de Runs são pré-agregados em memória por
+ * (site/página, granularidade, bucket) e aplicados com um upsert em lote por tabela,
+ * na mesma transação da gravação das Runs. O bucket é definido por
+ * {@code run.startedAt}, truncado para a hora e para o dia.</p>
+ *
+ * <p>Contagens de failures por severidade no nível do site vêm dos contadores da Run
+ * (critical/major/minor), as mesmas usadas no status da Run.</p>
+ *
+ * <p>Cada delta leva também os sketches de load e TTFB das suas amostras, mesclados
+ * aos sketches já gravados no bucket (ver {@link LatencySketch}).</p>
+ *
+ * @author Sistema de Monitoramento
+ * @version 1.0
+ * @since 2026-02-02
+ * @see RollupRepository
+ */
+@Component
+public class RollupAggregator {
+
+    private static final Comparator<SiteKey> SITE_KEY_ORDER = Comparator
+        .comparing(SiteKey::siteId)
+        .thenComparing(SiteKey::granularity)
+        .thenComparing(SiteKey::bucketStart);
+
+    private static final Comparator<PageKey> PAGE_KEY_ORDER = Comparator
+        .comparing(PageKey::pageId)
+        .thenComparing(PageKey::granularity)
+        .thenComparing(PageKey::bucketStart);
+
+    private final RollupRepository rollupRepository;
+
+    public RollupAggregator(RollupRepository rollupRepository) {
+        this.rollupRepository = rollupRepository;
+    }
+
+    public void apply(List<Run> runs) {
+        // Sorted keys: concurrent ingests lock rollup rows in the same order
+        Map<SiteKey, SiteRollup> siteDeltas = new TreeMap<>(SITE_KEY_ORDER);
+        Map<PageKey, PageRollup> pageDeltas = new TreeMap<>(PAGE_KEY_ORDER);
+
+        for (Run run : runs) {
+            for (RollupGranularity granularity : RollupGranularity.values()) {
+                LocalDateTime bucket = granularity.truncate(run.getStartedAt());
+
+                SiteRollup siteDelta = siteDelta(run, granularity, bucket);
+                siteDeltas.merge(new SiteKey(siteDelta.siteId(), granularity, bucket), siteDelta, SiteRollup::plus);
+
+                for (PageResult pr : run.getPageResults()) {
+                    PageRollup delta = pageDelta(pr, run, granularity, bucket);
+                    pageDeltas.merge(new PageKey(delta.pageId(), granularity, bucket), delta, PageRollup::plus);
+                }
+
+                for (Failure failure : run.getFailures()) {
+                    if (failure.getPage() == null) {
+                        continue;
+                    }
+                    PageRollup delta = failureDelta(failure, run, granularity, bucket);
+                    pageDeltas.merge(new PageKey(delta.pageId(), granularity, bucket), delta, PageRollup::plus);
+                }
+            }
+        }
+
+        rollupRepository.upsertSiteRollups(new ArrayList<>(siteDeltas.values()));
+        rollupRepository.upsertPageRollups(new ArrayList<>(pageDeltas.values()));
+    }
+
+    private SiteRollup siteDelta(Run run, RollupGranularity granularity, LocalDateTime bucket) {
+        long loadCount = 0, loadSum = 0, ttfbCount = 0, ttfbSum = 0;
+        Integer loadMax = null, ttfbMax = null;
+        LatencySketch loadSketch = new LatencySketch();
+        LatencySketch ttfbSketch = new LatencySketch();
+
+        for (PageResult pr : run.getPageResults()) {
+            if (pr.getLoadMs() != null) {
+                loadCount++;
+                loadSum += pr.getLoadMs();
+                loadMax = loadMax == null ? pr.getLoadMs() : Math.max(loadMax, pr.getLoadMs());
+                loadSketch.add(pr.getLoadMs());
+            }
+            if (pr.getTtfbMs() != null) {
+                ttfbCount++;
+                ttfbSum += pr.getTtfbMs();
+                ttfbMax = ttfbMax == null ? pr.getTtfbMs() : Math.max(ttfbMax, pr.getTtfbMs());
+                ttfbSketch.add(pr.getTtfbMs());
+            }
+        }
+
+        RunStatus status = run.getStatus();
+        return new SiteRollup(
+            run.getSite().getId(),
+            granularity,
+            bucket,
+            1,
+            status == RunStatus.SUCCESS ? 1 : 0,
+            status == RunStatus.WARNING ? 1 : 0,
+            status == RunStatus.FAILED ? 1 : 0,
+            run.getCriticalCount(),
+            run.getMajorCount(),
+            run.getMinorCount(),
+            loadCount,
+            loadSum,
+            loadMax,
+            ttfbCount,
+            ttfbSum,
+            ttfbMax,
+            loadSketch,
+            ttfbSketch
+        );
+    }
+
+    private PageRollup pageDelta(PageResult pr, Run run, RollupGranularity granularity, LocalDateTime bucket) {
+        Integer load = pr.getLoadMs();
+        Integer ttfb = pr.getTtfbMs();
+        LatencySketch loadSketch = new LatencySketch();
+        LatencySketch ttfbSketch = new LatencySketch();
+        if (load != null) loadSketch.add(load);
+        if (ttfb != null) ttfbSketch.add(ttfb);
+        return new PageRollup(
+            pr.getPage().getId(),
+            run.getSite().getId(),
+            granularity,
+            bucket,
+            1,
+            load != null ? 1 : 0,
+            load != null ? load : 0,
+            load,
+            ttfb != null ? 1 : 0,
+            ttfb != null ? ttfb : 0,
+            ttfb,
+            0, 0, 0,
+            loadSketch,
+            ttfbSketch
+        );
+    }
+
+    private PageRollup failureDelta(Failure failure, Run run, RollupGranularity granularity, LocalDateTime bucket) {
+        Severity severity = failure.getSeverity();
+        return new PageRollup(
+            failure.getPage().getId(),
+            run.getSite().getId(),
+            granularity,
+            bucket,
+            0, 0, 0, null, 0, 0, null,
+            severity == Severity.CRITICAL ? 1 : 0,
+            severity == Severity.MAJOR ? 1 : 0,
+            severity == Severity.MINOR ? 1 : 0,
+            new LatencySketch(),
+            new LatencySketch()
+        );
+    }
+
+    private record SiteKey(Long siteId, RollupGranularity granularity, LocalDateTime bucketStart) {}
+
+    private record PageKey(Long pageId, RollupGranularity granularity, LocalDateTime bucketStart) {}
+}
@@ -0,0 +1,235 @@
+package com.monitoring.api.service.ingest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.monitoring.api.domain.entity.Failure;
+import com.monitoring.api.domain.entity.PageResult;
+import com.monitoring.api.domain.entity.RequestError;
+import com.monitoring.api.domain.entity.Run;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Escrita em lote de Runs e de suas linhas filhas via JDBC.
+ *
+ * <p>As entidades usam {@code GenerationType.IDENTITY}, o que impede o Hibernate de
+ * agrupar INSERTs ({@code hibernate.jdbc.batch_size} é ignorado). Este writer usa as
+ * entidades apenas como portadores de dados e grava cada tabela com um único
+ * {@code batchUpdate}:</p>
+ *
+ * <ol>
+ *   <li>IDs de Run alocados antecipadamente com {@code nextval('runs_id_seq')}</li>
+ *   <li>INSERT em lote em runs, page_results, failures e request_errors</li>
+ *   <li>IDs das linhas filhas gerados pelo BIGSERIAL do banco</li>
+ * </ol>
+ *
+ * <p>Com {@code reWriteBatchedInserts=true} no driver PostgreSQL, cada lote vira um
+ * INSERT multi-valores: uma Run com centenas de request errors é gravada em 4 round-trips,
+ * independente do número de linhas. Aceita várias Runs de uma vez, para permitir
+ * commits em grupo.</p>
+ *
+ * <p>Participa da transação corrente (mesma conexão do JPA).</p>
+ *
+ * <p><b>Métricas (Micrometer):</b></p>
+ * <pre>
+ * monitoring.ingest.write          - Tempo de escrita de um lote de Runs
+ * monitoring.ingest.rows{table}    - Linhas inseridas por tabela
+ * </pre>
+ *
+ * @author Sistema de Monitoramento
+ * @version 1.0
+ * @since 2026-02-02
+ * @see com.monitoring.api.service.IngestService
+ */
+@Component
+public class RunBatchWriter {
+
+    private static final String INSERT_RUN = """
+        INSERT INTO runs (id, site_id, started_at, ended_at, status,
+                          critical_count, major_count, minor_count, summary, created_at)
+        VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+        """;
+
+    private static final String INSERT_PAGE_RESULT = """
+        INSERT INTO page_results (run_id, page_id, final_url, ttfb_ms, dom_ms, load_ms,
+                                  requests_count, total_bytes, bytes_by_type, created_at)
+        VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?::jsonb, ?)
+        """;
+
+    private static final String INSERT_FAILURE = """
+        INSERT INTO failures (run_id, page_id, severity, type, message, url, created_at)
+        VALUES (?, ?, ?, ?, ?, ?, ?)
+        """;
+
+    private static final String INSERT_REQUEST_ERROR = """
+        INSERT INTO request_errors (run_id, resource_type, url, status, duration_ms,
+                                    error_message, created_at)
+        VALUES (?, ?, ?, ?, ?, ?, ?)
+        """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final Timer writeTimer;
+    private final MeterRegistry meterRegistry;
+
+    public RunBatchWriter(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.writeTimer = meterRegistry.timer("monitoring.ingest.write");
+    }
+
+    /**
+     * Aloca o próximo ID de Run na sequence da tabela runs.
+     */
+    public long nextRunId() {
+        Long id = jdbcTemplate.queryForObject("SELECT nextval('runs_id_seq')", Long.class);
+        return id;
+    }
+
+    /**
+     * Aloca um bloco de IDs de Run em um único round-trip.
+     */
+    public List<Long> nextRunIds(int count) {
+        return jdbcTemplate.queryForList(
+            "SELECT nextval('runs_id_seq') FROM generate_series(1, ?)", Long.class, count);
+    }
+
+    /**
+     * Grava as Runs e todas as suas linhas filhas em lote.
+     *
+     * <p>Cada Run deve ter ID (ver {@link #nextRunId()}), site e createdAt preenchidos.
+     * As linhas filhas são lidas de {@code getPageResults()}, {@code getFailures()} e
+     * {@code getRequestErrors()}.</p>
+     */
+    public void write(List<Run> runs) {
+        if (runs.isEmpty()) {
+            return;
+        }
+
+        writeTimer.record(() -> {
+            insertRuns(runs);
+            insertPageResults(runs);
+            insertFailures(runs);
+            insertRequestErrors(runs);
+        });
+    }
+
+    private void insertRuns(List<Run> runs) {
+        jdbcTemplate.batchUpdate(INSERT_RUN, runs, runs.size(), (ps, run) -> {
+            ps.setLong(1, run.getId());
+            ps.setLong(2, run.getSite().getId());
+            ps.setTimestamp(3, toTimestamp(run.getStartedAt()));
+            ps.setTimestamp(4, toTimestamp(run.getEndedAt()));
+            ps.setString(5, run.getStatus().name());
+            ps.setInt(6, run.getCriticalCount());
+            ps.setInt(7, run.getMajorCount());
+            ps.setInt(8, run.getMinorCount());
+            ps.setString(9, run.getSummary());
+            ps.setTimestamp(10, toTimestamp(run.getCreatedAt()));
+        });
+        countRows("runs", runs.size());
+    }
+
+    private void insertPageResults(List<Run> runs) {
+        List<PageResult> rows = new ArrayList<>();
+        runs.forEach(run -> rows.addAll(run.getPageResults()));
+        if (rows.isEmpty()) {
+            return;
+        }
+
+        jdbcTemplate.batchUpdate(INSERT_PAGE_RESULT, rows, rows.size(), (ps, pr) -> {
+            ps.setLong(1, pr.getRun().getId());
+            ps.setLong(2, pr.getPage().getId());
+            ps.setString(3, pr.getFinalUrl());
+            setInteger(ps, 4, pr.getTtfbMs());
+            setInteger(ps, 5, pr.getDomMs());
+            setInteger(ps, 6, pr.getLoadMs());
+            ps.setInt(7, pr.getRequestsCount());
+            ps.setLong(8, pr.getTotalBytes());
+            ps.setString(9, toJson(pr.getBytesByType()));
+            ps.setTimestamp(10, toTimestamp(pr.getRun().getCreatedAt()));
+        });
+        countRows("page_results", rows.size());
+    }
+
+    private void insertFailures(List<Run> runs) {
+        List<Failure> rows = new ArrayList<>();
+        runs.forEach(run -> rows.addAll(run.getFailures()));
+        if (rows.isEmpty()) {
+            return;
+        }
+
+        jdbcTemplate.batchUpdate(INSERT_FAILURE, rows, rows.size(), (ps, failure) -> {
+            ps.setLong(1, failure.getRun().getId());
+            if (failure.getPage() != null) {
+                ps.setLong(2, failure.getPage().getId());
+            } else {
+                ps.setNull(2, Types.BIGINT);
+            }
+            ps.setString(3, failure.getSeverity().name());
+            ps.setString(4, failure.getType().name());
+            ps.setString(5, failure.getMessage());
+            ps.setString(6, failure.getUrl());
+            ps.setTimestamp(7, toTimestamp(failure.getRun().getCreatedAt()));
+        });
+        countRows("failures", rows.size());
+    }
+
+    private void insertRequestErrors(List<Run> runs) {
+        List<RequestError> rows = new ArrayList<>();
+        runs.forEach(run -> rows.addAll(run.getRequestErrors()));
+        if (rows.isEmpty()) {
+            return;
+        }
+
+        jdbcTemplate.batchUpdate(INSERT_REQUEST_ERROR, rows, rows.size(), (ps, re) -> {
+            ps.setLong(1, re.getRun().getId());
+            ps.setString(2, re.getResourceType());
+            ps.setString(3, re.getUrl());
+            setInteger(ps, 4, re.getStatus());
+            setInteger(ps, 5, re.getDurationMs());
+            ps.setString(6, re.getErrorMessage());
+            ps.setTimestamp(7, toTimestamp(re.getRun().getCreatedAt()));
+        });
+        countRows("request_errors", rows.size());
+    }
+
+    private void countRows(String table, int rows) {
+        meterRegistry.counter("monitoring.ingest.rows", "table", table).increment(rows);
+    }
+
+    private String toJson(Map<String, Long> value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Invalid bytesByType: " + e.getMessage(), e);
+        }
+    }
+
+    private static void setInteger(PreparedStatement ps, int index, Integer value) throws SQLException {
+        if (value != null) {
+            ps.setInt(index, value);
+        } else {
+            ps.setNull(index, Types.INTEGER);
+        }
+    }
+
+    private static Timestamp toTimestamp(LocalDateTime value) {
+        return value != null ? Timestamp.valueOf(value) : null;
+    }
+}
@@ -0,0 +1,83 @@
+package com.monitoring.api.service.scheduling;
+
+import com.monitoring.api.domain.enums.RunStatus;
+import com.monitoring.api.domain.status.SiteStatus;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Intervalo de check de um site conforme a saúde, a partir da frequência configurada.
+ *
+ * <pre>
+ * Última Run FAILED/WARNING - frequência / unhealthy-divisor (mín. min-interval-seconds):
+ *                             confirma a falha e mede a recuperação
+ * Estável                   - frequência * 2^(sucessos seguidos / stable-runs-per-step),
+ *                             até max-interval-seconds
+ * Sem Runs / desabilitado   - frequência configurada
+ * </pre>
+ *
+ * <p>O intervalo nunca fica acima do teto para sites instáveis nem abaixo da frequência
+ * configurada para sites estáveis; o orçamento global (checks por minuto) é aplicado
+ * pelo CheckSchedulerService sobre estes intervalos.</p>
+ *
+ * <p><b>Configurações:</b></p>
+ * <pre>
+ * monitoring.scheduler.adaptive.enabled=true
+ * monitoring.scheduler.adaptive.unhealthy-divisor=4
+ * monitoring.scheduler.adaptive.min-interval-seconds=30
+ * monitoring.scheduler.adaptive.stable-runs-per-step=12
+ * monitoring.scheduler.adaptive.max-interval-seconds=1800
+ * </pre>
+ */
+@Component
+public class AdaptiveFrequencyPolicy {
+
+    private final boolean enabled;
+    private final int unhealthyDivisor;
+    private final int minIntervalSeconds;
+    private final int stableRunsPerStep;
+    private final int maxIntervalSeconds;
+
+    public AdaptiveFrequencyPolicy(
+            @Value("${monitoring.scheduler.adaptive.enabled:true}") boolean enabled,
+            @Value("${monitoring.scheduler.adaptive.unhealthy-divisor:4}") int unhealthyDivisor,
+            @Value("${monitoring.scheduler.adaptive.min-interval-seconds:30}") int minIntervalSeconds,
+            @Value("${monitoring.scheduler.adaptive.stable-runs-per-step:12}") int stableRunsPerStep,
+            @Value("${monitoring.scheduler.adaptive.max-interval-seconds:1800}") int maxIntervalSeconds) {
+        this.enabled = enabled;
+        this.unhealthyDivisor = unhealthyDivisor;
+        this.minIntervalSeconds = minIntervalSeconds;
+        this.stableRunsPerStep = stableRunsPerStep;
+        this.maxIntervalSeconds = maxIntervalSeconds;
+    }
+
+    /**
+     * @param status Última Run conhecida do site, ou null
+     */
+    public int intervalSeconds(int frequencySeconds, SiteStatus status) {
+        if (!enabled || status == null) {
+            return frequencySeconds;
+        }
+        if (isUnhealthy(status)) {
+            return Math.min(frequencySeconds, Math.max(minIntervalSeconds, frequencySeconds / unhealthyDivisor));
+        }
+        int steps = status.consecutiveSuccesses() / stableRunsPerStep;
+        if (steps == 0 || frequencySeconds >= maxIntervalSeconds) {
+            return frequencySeconds;
+        }
+        long backedOff = (long) frequencySeconds << Math.min(steps, 20);
+        return (int) Math.min(backedOff, maxIntervalSeconds);
+    }
+
+    public boolean isUnhealthy(SiteStatus status) {
+        return enabled && isDegraded(status);
+    }
+
+    /**
+     * Última Run com falha ou alerta, independente de a política estar habilitada.
+     */
+    public static boolean isDegraded(SiteStatus status) {
+        return status != null
+            && (status.lastStatus() == RunStatus.FAILED || status.lastStatus() == RunStatus.WARNING);
+    }
+}
@@ -0,0 +1,67 @@
+package com.monitoring.api.service.scheduling;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Garante que um job de manutenção rode em uma única réplica por vez.
+ *
+ * <p>O Quartz usa store em memória, então todas as réplicas disparam os mesmos jobs no
+ * mesmo horário. Jobs que alteram o banco em massa (retenção, partições) são protegidos
+ * por um advisory lock de sessão do PostgreSQL ({@code pg_try_advisory_lock}): a réplica
+ * que obtém o lock executa o job; as demais pulam aquela execução. O lock fica preso à
+ * conexão que o obteve e é liberado ao final (ou pelo próprio banco, se a conexão cair).</p>
+ *
+ * @author Sistema de Monitoramento
+ * @version 1.0
+ * @since 2026-02-02
+ */
+@Component
+public class ClusterJobLock {
+    private static final Logger log = LoggerFactory.getLogger(ClusterJobLock.class);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ClusterJobLock(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Executa a tarefa se nenhuma outra réplica estiver executando o job.
+     *
+     * @param jobName Nome do job (chave do lock)
+     * @return true se a tarefa foi executada nesta réplica
+     */
+    public boolean runExclusively(String jobName, Runnable task) {
+        Boolean ran = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+            if (!advisoryLock(connection, "SELECT pg_try_advisory_lock(hashtext(?))", jobName)) {
+                log.info("Skipping {}: running on another replica", jobName);
+                return false;
+            }
+            try {
+                task.run();
+                return true;
+            } finally {
+                advisoryLock(connection, "SELECT pg_advisory_unlock(hashtext(?))", jobName);
+            }
+        });
+        return Boolean.TRUE.equals(ran);
+    }
+
+    private static boolean advisoryLock(Connection connection, String sql, String jobName) throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+            ps.setString(1, jobName);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() && rs.getBoolean(1);
+            }
+        }
+    }
+}
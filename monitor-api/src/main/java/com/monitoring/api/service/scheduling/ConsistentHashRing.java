@@ -0,0 +1,76 @@
+package com.monitoring.api.service.scheduling;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Anel de hash consistente que atribui sites a réplicas.
+ *
+ * <p>Cada membro ocupa {@code virtualNodes} posições no anel (hash MD5 de
+ * {@code instanceId#i}); um site pertence ao membro da primeira posição igual ou
+ * posterior ao hash do seu id. Quando um membro entra ou sai, só os sites das posições
+ * dele mudam de dono (~1/n), e todas as réplicas com a mesma lista de membros chegam à
+ * mesma atribuição.</p>
+ */
+public final class ConsistentHashRing {
+
+    private final List<String> members;
+    private final NavigableMap<Long, String> ring = new TreeMap<>();
+
+    /**
+     * @param members Membros vivos, em ordem estável (ex: ordenados por id)
+     */
+    public ConsistentHashRing(Collection<String> members, int virtualNodes) {
+        this.members = List.copyOf(members);
+        for (String member : this.members) {
+            for (int i = 0; i < virtualNodes; i++) {
+                ring.put(hash(member + "#" + i), member);
+            }
+        }
+    }
+
+    public static ConsistentHashRing empty() {
+        return new ConsistentHashRing(List.of(), 0);
+    }
+
+    /**
+     * @return Membro responsável pelo site, ou null se o anel estiver vazio
+     */
+    public String ownerOf(long siteId) {
+        if (ring.isEmpty()) {
+            return null;
+        }
+        Map.Entry<Long, String> entry = ring.ceilingEntry(mix(siteId));
+        return entry != null ? entry.getValue() : ring.firstEntry().getValue();
+    }
+
+    public List<String> members() {
+        return members;
+    }
+
+    private static long hash(String value) {
+        try {
+            byte[] digest = MessageDigest.getInstance("MD5").digest(value.getBytes(StandardCharsets.UTF_8));
+            return ByteBuffer.wrap(digest).getLong();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Murmur3 fmix64: spreads sequential ids over the ring
+    private static long mix(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return key;
+    }
+}
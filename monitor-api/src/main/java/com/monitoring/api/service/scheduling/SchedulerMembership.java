@@ -0,0 +1,150 @@
+package com.monitoring.api.service.scheduling;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Participação desta réplica no agendamento de checks e divisão dos sites entre réplicas.
+ *
+ * <p>Cada réplica do monitor-api grava um heartbeat em scheduler_members; as réplicas com
+ * heartbeat recente (relógio do banco) formam um {@link ConsistentHashRing}, e cada site
+ * é despachado apenas pela réplica dona dele. Quando uma réplica entra, sai (remove a
+ * própria linha no shutdown) ou para de fazer heartbeat, as demais percebem no próximo
+ * heartbeat e o anel é recalculado: a vazão de agendamento cresce com o número de
+ * réplicas e não há ponto único de falha.</p>
+ *
+ * <p><b>Segurança:</b> uma réplica que não consegue gravar heartbeat há mais de
+ * {@code member-ttl-seconds} deixa de se considerar dona de qualquer site, pois as outras
+ * já a consideram morta. Durante um rebalanceamento as réplicas podem divergir por até um
+ * intervalo de heartbeat (check duplicado ou atrasado em um período, no pior caso).</p>
+ *
+ * <p><b>Configurações:</b></p>
+ * <pre>
+ * monitoring.scheduler.instance-id=           - Id da réplica (padrão: HOSTNAME + sufixo aleatório)
+ * monitoring.scheduler.heartbeat-seconds=10   - Intervalo de heartbeat (QuartzConfig)
+ * monitoring.scheduler.member-ttl-seconds=30  - Sem heartbeat por mais que isso = réplica morta
+ * monitoring.scheduler.virtual-nodes=100      - Posições de cada réplica no anel
+ * </pre>
+ *
+ * <p><b>Métricas:</b> {@code monitoring.scheduler.members} - réplicas vivas no anel.</p>
+ *
+ * @author Sistema de Monitoramento
+ * @version 1.0
+ * @since 2026-02-02
+ * @see com.monitoring.api.service.CheckSchedulerService
+ */
+@Service
+public class SchedulerMembership {
+    private static final Logger log = LoggerFactory.getLogger(SchedulerMembership.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String instanceId;
+    private final int memberTtlSeconds;
+    private final int virtualNodes;
+
+    private volatile ConsistentHashRing ring = ConsistentHashRing.empty();
+    private volatile long lastHeartbeatNanos;
+    private volatile boolean heartbeatOk;
+    private volatile long ringChangedNanos = System.nanoTime();
+
+    public SchedulerMembership(
+            JdbcTemplate jdbcTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${monitoring.scheduler.instance-id:}") String instanceId,
+            @Value("${monitoring.scheduler.member-ttl-seconds:30}") int memberTtlSeconds,
+            @Value("${monitoring.scheduler.virtual-nodes:100}") int virtualNodes) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.instanceId = instanceId.isBlank()
+            ? System.getenv().getOrDefault("HOSTNAME", "monitor-api") + "-" + UUID.randomUUID().toString().substring(0, 8)
+            : instanceId;
+        this.memberTtlSeconds = memberTtlSeconds;
+        this.virtualNodes = virtualNodes;
+        meterRegistry.gauge("monitoring.scheduler.members", this, m -> m.ring.members().size());
+    }
+
+    /**
+     * Entra no anel antes do primeiro tick do scheduler (sem isso, a réplica não seria dona
+     * de nenhum site até o primeiro heartbeat agendado).
+     */
+    @PostConstruct
+    public void join() {
+        try {
+            heartbeat();
+        } catch (RuntimeException e) {
+            log.warn("Initial scheduler heartbeat failed, retrying on schedule: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Renova o heartbeat desta réplica e recalcula o anel a partir das réplicas vivas.
+     */
+    public void heartbeat() {
+        jdbcTemplate.update("""
+            INSERT INTO scheduler_members (instance_id, started_at, heartbeat_at)
+            VALUES (?, now(), now())
+            ON CONFLICT (instance_id) DO UPDATE SET heartbeat_at = now()
+            """, instanceId);
+        List<String> live = jdbcTemplate.queryForList("""
+            SELECT instance_id FROM scheduler_members
+            WHERE heartbeat_at > now() - ? * INTERVAL '1 second'
+            ORDER BY instance_id
+            """, String.class, memberTtlSeconds);
+
+        // Long-dead members only clutter the table
+        jdbcTemplate.update("DELETE FROM scheduler_members WHERE heartbeat_at < now() - ? * INTERVAL '1 second'",
+            memberTtlSeconds * 10);
+
+        lastHeartbeatNanos = System.nanoTime();
+        heartbeatOk = true;
+        if (!live.equals(ring.members())) {
+            log.info("Check scheduler members changed: {} -> {} (this instance: {})",
+                ring.members(), live, instanceId);
+            ring = new ConsistentHashRing(live, virtualNodes);
+            ringChangedNanos = System.nanoTime();
+        }
+    }
+
+    /**
+     * Se esta réplica deve despachar os checks do site.
+     */
+    public boolean owns(long siteId) {
+        if (!heartbeatOk || System.nanoTime() - lastHeartbeatNanos > memberTtlSeconds * 1_000_000_000L) {
+            return false;
+        }
+        return instanceId.equals(ring.ownerOf(siteId));
+    }
+
+    /**
+     * Se o anel mudou (inclusive pela entrada desta réplica) nos últimos {@code seconds}
+     * segundos, ou seja, se checks publicados pelo dono anterior de um site ainda podem
+     * estar em andamento.
+     */
+    public boolean changedWithin(int seconds) {
+        return System.nanoTime() - ringChangedNanos < seconds * 1_000_000_000L;
+    }
+
+    /**
+     * Réplicas vivas (ao menos 1, para dividir a taxa de despacho).
+     */
+    public int liveMembers() {
+        return Math.max(1, ring.members().size());
+    }
+
+    @PreDestroy
+    public void leave() {
+        try {
+            jdbcTemplate.update("DELETE FROM scheduler_members WHERE instance_id = ?", instanceId);
+        } catch (RuntimeException e) {
+            log.warn("Could not remove scheduler member {}: {}", instanceId, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.monitoring.api.service.timeseries;
+
+import com.monitoring.api.dto.dashboard.DataPoint;
+
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Downsampling Largest-Triangle-Three-Buckets (LTTB) para séries temporais.
+ *
+ * <p>Reduz a série a {@code maxPoints} pontos preservando a forma visual: o primeiro e o
+ * último ponto são mantidos e, em cada bucket intermediário, é escolhido o ponto que forma
+ * o maior triângulo com o ponto escolhido no bucket anterior e a média do bucket seguinte.
+ * Picos e vales sobrevivem; trechos planos são reduzidos.</p>
+ *
+ * <p>Os pontos retornados são pontos originais (com seus campos p95/max), nunca
+ * interpolados. A série deve estar ordenada por timestamp.</p>
+ */
+public final class LttbDownsampler {
+
+    private LttbDownsampler() {
+    }
+
+    /**
+     * @param points Série ordenada por timestamp (pontos com value nulo são ignorados)
+     * @param maxPoints Número máximo de pontos; null ou menor que 3 desativa o downsampling
+     * @return A própria série, se já couber em maxPoints, ou a série reduzida
+     */
+    public static List<DataPoint> downsample(List<DataPoint> points, Integer maxPoints) {
+        List<DataPoint> series = points.stream().filter(p -> p.value() != null).toList();
+        if (maxPoints == null || maxPoints < 3 || series.size() <= maxPoints) {
+            return points;
+        }
+
+        int n = series.size();
+        List<DataPoint> sampled = new ArrayList<>(maxPoints);
+        sampled.add(series.get(0));
+
+        // Middle points split into maxPoints - 2 buckets
+        double bucketSize = (double) (n - 2) / (maxPoints - 2);
+        int selected = 0;
+
+        for (int bucket = 0; bucket < maxPoints - 2; bucket++) {
+            int start = (int) Math.floor(bucket * bucketSize) + 1;
+            int end = (int) Math.floor((bucket + 1) * bucketSize) + 1;
+
+            // Average of the next bucket (the last point for the final bucket)
+            int nextStart = end;
+            int nextEnd = Math.min((int) Math.floor((bucket + 2) * bucketSize) + 1, n);
+            if (bucket == maxPoints - 3) {
+                nextStart = n - 1;
+                nextEnd = n;
+            }
+            double avgX = 0;
+            double avgY = 0;
+            for (int i = nextStart; i < nextEnd; i++) {
+                avgX += x(series.get(i));
+                avgY += series.get(i).value();
+            }
+            avgX /= nextEnd - nextStart;
+            avgY /= nextEnd - nextStart;
+
+            double ax = x(series.get(selected));
+            double ay = series.get(selected).value();
+
+            double maxArea = -1;
+            int maxIndex = start;
+            for (int i = start; i < end; i++) {
+                double area = Math.abs(
+                    (ax - avgX) * (series.get(i).value() - ay)
+                    - (ax - x(series.get(i))) * (avgY - ay));
+                if (area > maxArea) {
+                    maxArea = area;
+                    maxIndex = i;
+                }
+            }
+
+            sampled.add(series.get(maxIndex));
+            selected = maxIndex;
+        }
+
+        sampled.add(series.get(n - 1));
+        return sampled;
+    }
+
+    private static double x(DataPoint point) {
+        return point.timestamp().toEpochSecond(ZoneOffset.UTC);
+    }
+}
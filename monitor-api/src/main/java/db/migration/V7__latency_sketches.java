@@ -0,0 +1,140 @@
+package db.migration;
+
+import com.monitoring.api.domain.enums.RollupGranularity;
+import com.monitoring.api.domain.rollup.LatencySketch;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Adiciona os sketches de latência (load_sketch, ttfb_sketch) aos rollups e os
+ * preenche a partir de page_results.
+ *
+ * <p>Em Java porque o formato do sketch é serializado pela aplicação
+ * ({@link LatencySketch}). O backfill percorre page_results com cursor, ordenado por
+ * (site, dia), e grava os sketches de um site-dia por vez: memória limitada a um dia
+ * de um site, independente do histórico.</p>
+ */
+public class V7__latency_sketches extends BaseJavaMigration {
+
+    private static final int FETCH_SIZE = 5000;
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        Connection connection = context.getConnection();
+
+        try (Statement ddl = connection.createStatement()) {
+            ddl.execute("ALTER TABLE site_rollups ADD COLUMN load_sketch BYTEA, ADD COLUMN ttfb_sketch BYTEA");
+            ddl.execute("ALTER TABLE page_rollups ADD COLUMN load_sketch BYTEA, ADD COLUMN ttfb_sketch BYTEA");
+            ddl.execute("COMMENT ON COLUMN site_rollups.load_sketch IS "
+                + "'Mergeable load time sketch (1% relative accuracy), merged at ingest'");
+            ddl.execute("COMMENT ON COLUMN page_rollups.load_sketch IS "
+                + "'Mergeable load time sketch (1% relative accuracy), merged at ingest'");
+        }
+
+        backfill(connection);
+    }
+
+    private void backfill(Connection connection) throws SQLException {
+        String select = """
+            SELECT r.site_id, pr.page_id, r.started_at, pr.load_ms, pr.ttfb_ms
+            FROM page_results pr
+            JOIN runs r ON r.id = pr.run_id
+            WHERE pr.load_ms IS NOT NULL OR pr.ttfb_ms IS NOT NULL
+            ORDER BY r.site_id, date_trunc('day', r.started_at)
+            """;
+
+        try (PreparedStatement query = connection.prepareStatement(select);
+             PreparedStatement updateSite = connection.prepareStatement(
+                 "UPDATE site_rollups SET load_sketch = ?, ttfb_sketch = ?"
+                 + " WHERE site_id = ? AND granularity = ? AND bucket_start = ?");
+             PreparedStatement updatePage = connection.prepareStatement(
+                 "UPDATE page_rollups SET load_sketch = ?, ttfb_sketch = ?"
+                 + " WHERE page_id = ? AND granularity = ? AND bucket_start = ?")) {
+
+            // Cursor-based fetch (the migration runs inside a transaction)
+            query.setFetchSize(FETCH_SIZE);
+
+            Map<Key, LatencySketch[]> siteSketches = new HashMap<>();
+            Map<Key, LatencySketch[]> pageSketches = new HashMap<>();
+            Long currentSite = null;
+            LocalDateTime currentDay = null;
+
+            try (ResultSet rs = query.executeQuery()) {
+                while (rs.next()) {
+                    long siteId = rs.getLong("site_id");
+                    long pageId = rs.getLong("page_id");
+                    LocalDateTime startedAt = rs.getTimestamp("started_at").toLocalDateTime();
+                    Integer load = getInteger(rs, "load_ms");
+                    Integer ttfb = getInteger(rs, "ttfb_ms");
+
+                    LocalDateTime day = RollupGranularity.DAY.truncate(startedAt);
+                    if (currentSite != null && (currentSite != siteId || !currentDay.equals(day))) {
+                        flush(updateSite, siteSketches);
+                        flush(updatePage, pageSketches);
+                    }
+                    currentSite = siteId;
+                    currentDay = day;
+
+                    for (RollupGranularity granularity : RollupGranularity.values()) {
+                        LocalDateTime bucket = granularity.truncate(startedAt);
+                        add(siteSketches, new Key(siteId, granularity, bucket), load, ttfb);
+                        add(pageSketches, new Key(pageId, granularity, bucket), load, ttfb);
+                    }
+                }
+            }
+
+            flush(updateSite, siteSketches);
+            flush(updatePage, pageSketches);
+        }
+    }
+
+    private static void add(Map<Key, LatencySketch[]> sketches, Key key, Integer load, Integer ttfb) {
+        LatencySketch[] pair = sketches.computeIfAbsent(key,
+            k -> new LatencySketch[] { new LatencySketch(), new LatencySketch() });
+        if (load != null) pair[0].add(load);
+        if (ttfb != null) pair[1].add(ttfb);
+    }
+
+    private static void flush(PreparedStatement update, Map<Key, LatencySketch[]> sketches) throws SQLException {
+        if (sketches.isEmpty()) {
+            return;
+        }
+        for (Map.Entry<Key, LatencySketch[]> entry : sketches.entrySet()) {
+            Key key = entry.getKey();
+            setSketch(update, 1, entry.getValue()[0]);
+            setSketch(update, 2, entry.getValue()[1]);
+            update.setLong(3, key.id());
+            update.setString(4, key.granularity().name());
+            update.setTimestamp(5, Timestamp.valueOf(key.bucketStart()));
+            update.addBatch();
+        }
+        update.executeBatch();
+        sketches.clear();
+    }
+
+    private static void setSketch(PreparedStatement ps, int index, LatencySketch sketch) throws SQLException {
+        if (sketch.isEmpty()) {
+            ps.setNull(index, Types.BINARY);
+        } else {
+            ps.setBytes(index, sketch.toBytes());
+        }
+    }
+
+    private static Integer getInteger(ResultSet rs, String column) throws SQLException {
+        int value = rs.getInt(column);
+        return rs.wasNull() ? null : value;
+    }
+
+    private record Key(long id, RollupGranularity granularity, LocalDateTime bucketStart) {}
+}
@@ -0,0 +1,12 @@
+-- V10__check_dispatches.sql
+
+-- Checks published to the runners whose run has not been ingested yet. The scheduler skips
+-- a site while its row is unexpired; ingesting a run of the site deletes the row.
+
+CREATE TABLE check_dispatches (
+    site_id BIGINT PRIMARY KEY REFERENCES sites(id) ON DELETE CASCADE,
+    dispatched_at TIMESTAMP NOT NULL,
+    expires_at TIMESTAMP NOT NULL
+);
+
+COMMENT ON TABLE check_dispatches IS 'In-flight scheduled checks (dispatched, not yet ingested)';
@@ -0,0 +1,28 @@
+-- V11__site_status_streak.sql
+
+-- Consecutive SUCCESS runs of each site up to its latest run; drives adaptive check frequency
+-- (long-stable sites are checked less often).
+
+ALTER TABLE site_status ADD COLUMN consecutive_successes INTEGER NOT NULL DEFAULT 0;
+
+-- Backfill: successful runs after the site's latest non-successful run
+WITH last_unsuccessful AS (
+    SELECT site_id, MAX(started_at) AS started_at
+    FROM runs
+    WHERE status <> 'SUCCESS'
+    GROUP BY site_id
+),
+streaks AS (
+    SELECT r.site_id, COUNT(*) AS streak
+    FROM runs r
+    LEFT JOIN last_unsuccessful lu ON lu.site_id = r.site_id
+    WHERE r.status = 'SUCCESS'
+    AND (lu.started_at IS NULL OR r.started_at > lu.started_at)
+    GROUP BY r.site_id
+)
+UPDATE site_status ss
+SET consecutive_successes = streaks.streak
+FROM streaks
+WHERE ss.site_id = streaks.site_id;
+
+COMMENT ON COLUMN site_status.consecutive_successes IS 'SUCCESS runs in a row up to last_started_at';
@@ -0,0 +1,72 @@
+-- V12__partition_default_relocation.sql
+
+-- 1. Creating a monthly partition used to fail once the DEFAULT partition held a row for
+--    that month ("updated partition constraint for default partition would be violated").
+--    The month is now built as a standalone table, the matching rows are moved out of
+--    <table>_default into it, and only then is it attached: the default partition no
+--    longer contains rows for the new range, so the attach succeeds.
+CREATE OR REPLACE FUNCTION create_monthly_partitions(p_table TEXT, p_from DATE, p_months INTEGER)
+RETURNS INTEGER AS $$
+DECLARE
+    month_start DATE := date_trunc('month', p_from)::DATE;
+    month_end DATE;
+    partition_name TEXT;
+    default_name TEXT := p_table || '_default';
+    key_column TEXT;
+    created INTEGER := 0;
+BEGIN
+    key_column := substring(pg_get_partkeydef(p_table::regclass) FROM '\((\w+)\)');
+
+    FOR i IN 0 .. p_months - 1 LOOP
+        partition_name := p_table || '_p' || to_char(month_start, 'YYYYMM');
+        month_end := (month_start + INTERVAL '1 month')::DATE;
+
+        IF to_regclass(partition_name) IS NULL THEN
+            IF to_regclass(default_name) IS NULL THEN
+                EXECUTE format(
+                    'CREATE TABLE %I PARTITION OF %I FOR VALUES FROM (%L) TO (%L)',
+                    partition_name, p_table, month_start, month_end);
+            ELSE
+                EXECUTE format(
+                    'CREATE TABLE %I (LIKE %I INCLUDING DEFAULTS INCLUDING CONSTRAINTS)',
+                    partition_name, p_table);
+                EXECUTE format(
+                    'WITH moved AS (DELETE FROM %I WHERE %I >= %L AND %I < %L RETURNING *) '
+                    || 'INSERT INTO %I SELECT * FROM moved',
+                    default_name, key_column, month_start, key_column, month_end, partition_name);
+                EXECUTE format(
+                    'ALTER TABLE %I ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)',
+                    p_table, partition_name, month_start, month_end);
+            END IF;
+            created := created + 1;
+        END IF;
+
+        month_start := month_end;
+    END LOOP;
+
+    RETURN created;
+END;
+$$ LANGUAGE plpgsql;
+
+COMMENT ON FUNCTION create_monthly_partitions(TEXT, DATE, INTEGER) IS
+    'Creates missing monthly partitions <table>_pYYYYMM, moving matching rows out of <table>_default';
+
+-- 2. Child tables lost their run_id foreign keys in V4, so deleting a site (which cascades
+--    to runs and, through site_pages, to page_results) left its failures and
+--    request_errors behind. Remove them before the site goes.
+CREATE OR REPLACE FUNCTION delete_site_run_children()
+RETURNS TRIGGER AS $$
+BEGIN
+    DELETE FROM failures WHERE run_id IN (SELECT id FROM runs WHERE site_id = OLD.id);
+    DELETE FROM request_errors WHERE run_id IN (SELECT id FROM runs WHERE site_id = OLD.id);
+    RETURN OLD;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_sites_delete_run_children
+    BEFORE DELETE ON sites
+    FOR EACH ROW EXECUTE FUNCTION delete_site_run_children();
+
+-- Orphans left by sites deleted since V4
+DELETE FROM failures f WHERE NOT EXISTS (SELECT 1 FROM runs r WHERE r.id = f.run_id);
+DELETE FROM request_errors e WHERE NOT EXISTS (SELECT 1 FROM runs r WHERE r.id = e.run_id);
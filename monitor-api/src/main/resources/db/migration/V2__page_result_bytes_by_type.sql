@@ -0,0 +1,6 @@
+-- V2__page_result_bytes_by_type.sql
+
+-- Transferred bytes per resource type (document, script, image, ...)
+ALTER TABLE page_results ADD COLUMN bytes_by_type JSONB;
+
+COMMENT ON COLUMN page_results.bytes_by_type IS 'Transferred bytes per resource type, from browser transfer sizes';
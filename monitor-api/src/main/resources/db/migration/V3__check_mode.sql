@@ -0,0 +1,8 @@
+-- V3__check_mode.sql
+
+-- Check mode per site (default for its pages) and optional override per page
+ALTER TABLE sites ADD COLUMN check_mode VARCHAR(20) NOT NULL DEFAULT 'BROWSER';
+ALTER TABLE site_pages ADD COLUMN check_mode VARCHAR(20);
+
+COMMENT ON COLUMN sites.check_mode IS 'BROWSER (Playwright) or HTTP (document request only)';
+COMMENT ON COLUMN site_pages.check_mode IS 'Overrides sites.check_mode when not null';
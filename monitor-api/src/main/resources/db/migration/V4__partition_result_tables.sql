@@ -0,0 +1,184 @@
+-- V4__partition_result_tables.sql
+
+-- Monthly range partitioning for the result tables:
+--   runs                                        -> started_at
+--   page_results, failures, request_errors      -> created_at (= run ingest time)
+-- Primary keys become (id, partition key), so child tables can no longer reference
+-- runs(id); the run_id foreign keys are dropped and child rows are removed together
+-- with their runs by partition drops (retention) or by the application.
+
+-- Creates one partition per month for [p_from, p_from + p_months), if missing.
+-- Partitions are named <table>_pYYYYMM. Returns the number of partitions created.
+CREATE OR REPLACE FUNCTION create_monthly_partitions(p_table TEXT, p_from DATE, p_months INTEGER)
+RETURNS INTEGER AS $$
+DECLARE
+    month_start DATE := date_trunc('month', p_from)::DATE;
+    partition_name TEXT;
+    created INTEGER := 0;
+BEGIN
+    FOR i IN 0 .. p_months - 1 LOOP
+        partition_name := p_table || '_p' || to_char(month_start, 'YYYYMM');
+
+        IF to_regclass(partition_name) IS NULL THEN
+            EXECUTE format(
+                'CREATE TABLE %I PARTITION OF %I FOR VALUES FROM (%L) TO (%L)',
+                partition_name, p_table, month_start, (month_start + INTERVAL '1 month')::DATE);
+            created := created + 1;
+        END IF;
+
+        month_start := (month_start + INTERVAL '1 month')::DATE;
+    END LOOP;
+
+    RETURN created;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Keep the existing tables (and their sequences) aside while the partitioned ones are built
+ALTER TABLE request_errors RENAME TO request_errors_legacy;
+ALTER TABLE failures RENAME TO failures_legacy;
+ALTER TABLE page_results RENAME TO page_results_legacy;
+ALTER TABLE runs RENAME TO runs_legacy;
+
+ALTER SEQUENCE runs_id_seq OWNED BY NONE;
+ALTER SEQUENCE page_results_id_seq OWNED BY NONE;
+ALTER SEQUENCE failures_id_seq OWNED BY NONE;
+ALTER SEQUENCE request_errors_id_seq OWNED BY NONE;
+
+CREATE TABLE runs (
+    id BIGINT NOT NULL DEFAULT nextval('runs_id_seq'),
+    site_id BIGINT NOT NULL REFERENCES sites(id) ON DELETE CASCADE,
+    started_at TIMESTAMP NOT NULL,
+    ended_at TIMESTAMP,
+    status VARCHAR(20) NOT NULL,
+    critical_count INTEGER NOT NULL DEFAULT 0,
+    major_count INTEGER NOT NULL DEFAULT 0,
+    minor_count INTEGER NOT NULL DEFAULT 0,
+    summary TEXT,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+) PARTITION BY RANGE (started_at);
+
+CREATE TABLE page_results (
+    id BIGINT NOT NULL DEFAULT nextval('page_results_id_seq'),
+    run_id BIGINT NOT NULL,
+    page_id BIGINT NOT NULL REFERENCES site_pages(id) ON DELETE CASCADE,
+    final_url VARCHAR(1000),
+    ttfb_ms INTEGER,
+    dom_ms INTEGER,
+    load_ms INTEGER,
+    requests_count INTEGER NOT NULL DEFAULT 0,
+    total_bytes BIGINT NOT NULL DEFAULT 0,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    bytes_by_type JSONB
+) PARTITION BY RANGE (created_at);
+
+CREATE TABLE failures (
+    id BIGINT NOT NULL DEFAULT nextval('failures_id_seq'),
+    run_id BIGINT NOT NULL,
+    page_id BIGINT REFERENCES site_pages(id) ON DELETE SET NULL,
+    severity VARCHAR(20) NOT NULL,
+    type VARCHAR(50) NOT NULL,
+    message TEXT NOT NULL,
+    url VARCHAR(1000),
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+) PARTITION BY RANGE (created_at);
+
+CREATE TABLE request_errors (
+    id BIGINT NOT NULL DEFAULT nextval('request_errors_id_seq'),
+    run_id BIGINT NOT NULL,
+    resource_type VARCHAR(50) NOT NULL,
+    url VARCHAR(1000) NOT NULL,
+    status INTEGER,
+    duration_ms INTEGER,
+    error_message TEXT,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+) PARTITION BY RANGE (created_at);
+
+-- Default partitions catch rows outside the pre-created months (should stay empty)
+CREATE TABLE runs_default PARTITION OF runs DEFAULT;
+CREATE TABLE page_results_default PARTITION OF page_results DEFAULT;
+CREATE TABLE failures_default PARTITION OF failures DEFAULT;
+CREATE TABLE request_errors_default PARTITION OF request_errors DEFAULT;
+
+-- Monthly partitions from the oldest existing row up to 3 months ahead
+DO $$
+DECLARE
+    oldest DATE;
+    months INTEGER;
+BEGIN
+    SELECT LEAST(
+        (SELECT MIN(started_at) FROM runs_legacy),
+        (SELECT MIN(created_at) FROM page_results_legacy),
+        (SELECT MIN(created_at) FROM failures_legacy),
+        (SELECT MIN(created_at) FROM request_errors_legacy),
+        CURRENT_DATE
+    )::DATE INTO oldest;
+
+    months := (EXTRACT(YEAR FROM age(date_trunc('month', CURRENT_DATE), date_trunc('month', oldest))) * 12
+             + EXTRACT(MONTH FROM age(date_trunc('month', CURRENT_DATE), date_trunc('month', oldest))))::INTEGER + 4;
+
+    PERFORM create_monthly_partitions('runs', oldest, months);
+    PERFORM create_monthly_partitions('page_results', oldest, months);
+    PERFORM create_monthly_partitions('failures', oldest, months);
+    PERFORM create_monthly_partitions('request_errors', oldest, months);
+END $$;
+
+-- Copy existing data
+INSERT INTO runs (id, site_id, started_at, ended_at, status, critical_count, major_count,
+                  minor_count, summary, created_at)
+SELECT id, site_id, started_at, ended_at, status, critical_count, major_count,
+       minor_count, summary, created_at
+FROM runs_legacy;
+
+INSERT INTO page_results (id, run_id, page_id, final_url, ttfb_ms, dom_ms, load_ms,
+                          requests_count, total_bytes, created_at, bytes_by_type)
+SELECT id, run_id, page_id, final_url, ttfb_ms, dom_ms, load_ms,
+       requests_count, total_bytes, created_at, bytes_by_type
+FROM page_results_legacy;
+
+INSERT INTO failures (id, run_id, page_id, severity, type, message, url, created_at)
+SELECT id, run_id, page_id, severity, type, message, url, created_at
+FROM failures_legacy;
+
+INSERT INTO request_errors (id, run_id, resource_type, url, status, duration_ms, error_message, created_at)
+SELECT id, run_id, resource_type, url, status, duration_ms, error_message, created_at
+FROM request_errors_legacy;
+
+DROP TABLE request_errors_legacy;
+DROP TABLE failures_legacy;
+DROP TABLE page_results_legacy;
+DROP TABLE runs_legacy;
+
+ALTER SEQUENCE runs_id_seq OWNED BY runs.id;
+ALTER SEQUENCE page_results_id_seq OWNED BY page_results.id;
+ALTER SEQUENCE failures_id_seq OWNED BY failures.id;
+ALTER SEQUENCE request_errors_id_seq OWNED BY request_errors.id;
+
+-- Keys and indexes (created after the copy; propagated to every partition)
+ALTER TABLE runs ADD PRIMARY KEY (id, started_at);
+ALTER TABLE page_results ADD PRIMARY KEY (id, created_at);
+ALTER TABLE failures ADD PRIMARY KEY (id, created_at);
+ALTER TABLE request_errors ADD PRIMARY KEY (id, created_at);
+
+CREATE INDEX idx_runs_id ON runs(id);
+CREATE INDEX idx_runs_site_id ON runs(site_id);
+CREATE INDEX idx_runs_started_at ON runs(started_at DESC);
+CREATE INDEX idx_runs_status ON runs(status);
+CREATE INDEX idx_runs_site_started ON runs(site_id, started_at DESC);
+
+CREATE INDEX idx_page_results_run_id ON page_results(run_id);
+CREATE INDEX idx_page_results_page_id ON page_results(page_id);
+
+CREATE INDEX idx_failures_run_id ON failures(run_id);
+CREATE INDEX idx_failures_severity ON failures(severity);
+CREATE INDEX idx_failures_type ON failures(type);
+
+CREATE INDEX idx_request_errors_run_id ON request_errors(run_id);
+CREATE INDEX idx_request_errors_created_at ON request_errors(created_at);
+CREATE INDEX idx_request_errors_status ON request_errors(status);
+
+COMMENT ON TABLE runs IS 'Execution runs with aggregated results (monthly partitions on started_at)';
+COMMENT ON TABLE page_results IS 'Performance metrics per page per run (monthly partitions on created_at)';
+COMMENT ON TABLE failures IS 'Detected issues aggregated by type (monthly partitions on created_at)';
+COMMENT ON TABLE request_errors IS 'Detailed HTTP request errors (monthly partitions on created_at)';
+COMMENT ON COLUMN page_results.bytes_by_type IS 'Transferred bytes per resource type, from browser transfer sizes';
+COMMENT ON FUNCTION create_monthly_partitions(TEXT, DATE, INTEGER) IS 'Creates missing monthly partitions <table>_pYYYYMM';
@@ -0,0 +1,9 @@
+-- V5__retention_indexes.sql
+
+-- Keyset order used by the retention purge: (timestamp, id)
+CREATE INDEX idx_page_results_created_id ON page_results(created_at, id);
+CREATE INDEX idx_failures_created_id ON failures(created_at, id);
+CREATE INDEX idx_runs_started_id ON runs(started_at, id);
+-- request_errors already has idx_request_errors_created_at; widen it to the keyset order
+DROP INDEX idx_request_errors_created_at;
+CREATE INDEX idx_request_errors_created_id ON request_errors(created_at, id);
@@ -0,0 +1,117 @@
+-- V6__rollup_tables.sql
+
+-- Hourly / daily aggregates per site and per page, maintained at ingest time.
+-- Buckets are date_trunc(granularity, runs.started_at). Averages = sum / count.
+
+CREATE TABLE site_rollups (
+    site_id BIGINT NOT NULL REFERENCES sites(id) ON DELETE CASCADE,
+    granularity VARCHAR(8) NOT NULL,
+    bucket_start TIMESTAMP NOT NULL,
+    runs_total BIGINT NOT NULL DEFAULT 0,
+    runs_success BIGINT NOT NULL DEFAULT 0,
+    runs_warning BIGINT NOT NULL DEFAULT 0,
+    runs_failed BIGINT NOT NULL DEFAULT 0,
+    failures_critical BIGINT NOT NULL DEFAULT 0,
+    failures_major BIGINT NOT NULL DEFAULT 0,
+    failures_minor BIGINT NOT NULL DEFAULT 0,
+    load_count BIGINT NOT NULL DEFAULT 0,
+    load_sum BIGINT NOT NULL DEFAULT 0,
+    load_max INTEGER,
+    ttfb_count BIGINT NOT NULL DEFAULT 0,
+    ttfb_sum BIGINT NOT NULL DEFAULT 0,
+    ttfb_max INTEGER,
+    PRIMARY KEY (site_id, granularity, bucket_start)
+);
+
+CREATE TABLE page_rollups (
+    page_id BIGINT NOT NULL REFERENCES site_pages(id) ON DELETE CASCADE,
+    site_id BIGINT NOT NULL REFERENCES sites(id) ON DELETE CASCADE,
+    granularity VARCHAR(8) NOT NULL,
+    bucket_start TIMESTAMP NOT NULL,
+    samples BIGINT NOT NULL DEFAULT 0,
+    load_count BIGINT NOT NULL DEFAULT 0,
+    load_sum BIGINT NOT NULL DEFAULT 0,
+    load_max INTEGER,
+    ttfb_count BIGINT NOT NULL DEFAULT 0,
+    ttfb_sum BIGINT NOT NULL DEFAULT 0,
+    ttfb_max INTEGER,
+    failures_critical BIGINT NOT NULL DEFAULT 0,
+    failures_major BIGINT NOT NULL DEFAULT 0,
+    failures_minor BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (page_id, granularity, bucket_start)
+);
+
+CREATE INDEX idx_page_rollups_site ON page_rollups(site_id, granularity, bucket_start);
+
+-- Backfill HOUR buckets from existing raw data
+INSERT INTO site_rollups (site_id, granularity, bucket_start,
+                          runs_total, runs_success, runs_warning, runs_failed,
+                          failures_critical, failures_major, failures_minor,
+                          load_count, load_sum, load_max, ttfb_count, ttfb_sum, ttfb_max)
+SELECT r.site_id, 'HOUR', date_trunc('hour', r.started_at),
+       COUNT(*),
+       COUNT(*) FILTER (WHERE r.status = 'SUCCESS'),
+       COUNT(*) FILTER (WHERE r.status = 'WARNING'),
+       COUNT(*) FILTER (WHERE r.status = 'FAILED'),
+       SUM(r.critical_count), SUM(r.major_count), SUM(r.minor_count),
+       COALESCE(SUM(p.load_count), 0), COALESCE(SUM(p.load_sum), 0), MAX(p.load_max),
+       COALESCE(SUM(p.ttfb_count), 0), COALESCE(SUM(p.ttfb_sum), 0), MAX(p.ttfb_max)
+FROM runs r
+LEFT JOIN (
+    SELECT run_id,
+           COUNT(load_ms) AS load_count, SUM(load_ms) AS load_sum, MAX(load_ms) AS load_max,
+           COUNT(ttfb_ms) AS ttfb_count, SUM(ttfb_ms) AS ttfb_sum, MAX(ttfb_ms) AS ttfb_max
+    FROM page_results
+    GROUP BY run_id
+) p ON p.run_id = r.id
+GROUP BY r.site_id, date_trunc('hour', r.started_at);
+
+INSERT INTO page_rollups (page_id, site_id, granularity, bucket_start, samples,
+                          load_count, load_sum, load_max, ttfb_count, ttfb_sum, ttfb_max)
+SELECT pr.page_id, r.site_id, 'HOUR', date_trunc('hour', r.started_at), COUNT(*),
+       COUNT(pr.load_ms), COALESCE(SUM(pr.load_ms), 0), MAX(pr.load_ms),
+       COUNT(pr.ttfb_ms), COALESCE(SUM(pr.ttfb_ms), 0), MAX(pr.ttfb_ms)
+FROM page_results pr
+JOIN runs r ON r.id = pr.run_id
+GROUP BY pr.page_id, r.site_id, date_trunc('hour', r.started_at);
+
+INSERT INTO page_rollups (page_id, site_id, granularity, bucket_start,
+                          failures_critical, failures_major, failures_minor)
+SELECT f.page_id, r.site_id, 'HOUR', date_trunc('hour', r.started_at),
+       COUNT(*) FILTER (WHERE f.severity = 'CRITICAL'),
+       COUNT(*) FILTER (WHERE f.severity = 'MAJOR'),
+       COUNT(*) FILTER (WHERE f.severity = 'MINOR')
+FROM failures f
+JOIN runs r ON r.id = f.run_id
+WHERE f.page_id IS NOT NULL
+GROUP BY f.page_id, r.site_id, date_trunc('hour', r.started_at)
+ON CONFLICT (page_id, granularity, bucket_start) DO UPDATE SET
+    failures_critical = EXCLUDED.failures_critical,
+    failures_major = EXCLUDED.failures_major,
+    failures_minor = EXCLUDED.failures_minor;
+
+-- DAY buckets folded from the HOUR buckets
+INSERT INTO site_rollups (site_id, granularity, bucket_start,
+                          runs_total, runs_success, runs_warning, runs_failed,
+                          failures_critical, failures_major, failures_minor,
+                          load_count, load_sum, load_max, ttfb_count, ttfb_sum, ttfb_max)
+SELECT site_id, 'DAY', date_trunc('day', bucket_start),
+       SUM(runs_total), SUM(runs_success), SUM(runs_warning), SUM(runs_failed),
+       SUM(failures_critical), SUM(failures_major), SUM(failures_minor),
+       SUM(load_count), SUM(load_sum), MAX(load_max), SUM(ttfb_count), SUM(ttfb_sum), MAX(ttfb_max)
+FROM site_rollups
+WHERE granularity = 'HOUR'
+GROUP BY site_id, date_trunc('day', bucket_start);
+
+INSERT INTO page_rollups (page_id, site_id, granularity, bucket_start, samples,
+                          load_count, load_sum, load_max, ttfb_count, ttfb_sum, ttfb_max,
+                          failures_critical, failures_major, failures_minor)
+SELECT page_id, site_id, 'DAY', date_trunc('day', bucket_start), SUM(samples),
+       SUM(load_count), SUM(load_sum), MAX(load_max), SUM(ttfb_count), SUM(ttfb_sum), MAX(ttfb_max),
+       SUM(failures_critical), SUM(failures_major), SUM(failures_minor)
+FROM page_rollups
+WHERE granularity = 'HOUR'
+GROUP BY page_id, site_id, date_trunc('day', bucket_start);
+
+COMMENT ON TABLE site_rollups IS 'Hourly/daily aggregates per site, upserted at ingest';
+COMMENT ON TABLE page_rollups IS 'Hourly/daily aggregates per page, upserted at ingest';
@@ -0,0 +1,25 @@
+-- V8__site_status.sql
+
+-- Latest run per site (by started_at), maintained at ingest so the dashboard reads the
+-- current status without scanning runs.
+
+CREATE TABLE site_status (
+    site_id BIGINT PRIMARY KEY REFERENCES sites(id) ON DELETE CASCADE,
+    last_run_id BIGINT NOT NULL,
+    last_started_at TIMESTAMP NOT NULL,
+    last_status VARCHAR(20) NOT NULL,
+    critical_count INTEGER NOT NULL DEFAULT 0,
+    major_count INTEGER NOT NULL DEFAULT 0,
+    minor_count INTEGER NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Backfill from existing runs
+INSERT INTO site_status (site_id, last_run_id, last_started_at, last_status,
+                         critical_count, major_count, minor_count)
+SELECT DISTINCT ON (site_id)
+       site_id, id, started_at, status, critical_count, major_count, minor_count
+FROM runs
+ORDER BY site_id, started_at DESC, id DESC;
+
+COMMENT ON TABLE site_status IS 'Latest run per site, upserted at ingest';
@@ -0,0 +1,13 @@
+-- V9__scheduler_members.sql
+
+-- Live monitor-api replicas taking part in check scheduling. Each replica upserts its row
+-- every heartbeat; rows with a recent heartbeat form the consistent-hash ring that
+-- shards sites across replicas.
+
+CREATE TABLE scheduler_members (
+    instance_id VARCHAR(100) PRIMARY KEY,
+    started_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    heartbeat_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+COMMENT ON TABLE scheduler_members IS 'Check scheduler replicas; live = recent heartbeat_at';
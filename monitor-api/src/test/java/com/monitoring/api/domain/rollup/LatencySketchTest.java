@@ -0,0 +1,130 @@
+package com.monitoring.api.domain.rollup;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.function.IntSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LatencySketchTest {
+
+    private static final double[] QUANTILES = { 0.0, 0.01, 0.25, 0.5, 0.75, 0.9, 0.95, 0.99, 0.999, 1.0 };
+
+    @Test
+    void quantilesStayWithinRelativeAccuracyOfExactNearestRank() {
+        Random random = new Random(42);
+        for (int n : new int[] { 1, 2, 10, 100, 1_000, 5_000 }) {
+            for (IntSupplier distribution : distributions(random)) {
+                int[] samples = samples(distribution, n);
+                LatencySketch sketch = new LatencySketch();
+                for (int sample : samples) {
+                    sketch.add(sample);
+                }
+
+                assertAccurate(sketch, samples);
+            }
+        }
+    }
+
+    @Test
+    void mergedSketchesKeepTheSameAccuracy() {
+        Random random = new Random(7);
+        for (IntSupplier distribution : distributions(random)) {
+            int[] samples = samples(distribution, 5_000);
+
+            // Uneven parts, as hourly rollups folded into days
+            List<LatencySketch> parts = new ArrayList<>();
+            int offset = 0;
+            while (offset < samples.length) {
+                int size = Math.min(samples.length - offset, 1 + random.nextInt(400));
+                LatencySketch part = new LatencySketch();
+                for (int i = offset; i < offset + size; i++) {
+                    part.add(samples[i]);
+                }
+                parts.add(part);
+                offset += size;
+            }
+
+            LatencySketch merged = new LatencySketch();
+            parts.forEach(merged::merge);
+
+            assertThat(merged.count()).isEqualTo(samples.length);
+            assertAccurate(merged, samples);
+        }
+    }
+
+    @Test
+    void serializedSketchesKeepTheSameAccuracy() {
+        Random random = new Random(99);
+        for (IntSupplier distribution : distributions(random)) {
+            int[] samples = samples(distribution, 2_000);
+            LatencySketch first = new LatencySketch();
+            LatencySketch second = new LatencySketch();
+            for (int i = 0; i < samples.length; i++) {
+                (i % 2 == 0 ? first : second).add(samples[i]);
+            }
+
+            // Stored bytes merged at ingest, then read back by the dashboard
+            LatencySketch merged = LatencySketch.fromBytes(first.toBytes());
+            merged.merge(LatencySketch.fromBytes(second.toBytes()));
+            LatencySketch restored = LatencySketch.fromBytes(merged.toBytes());
+
+            assertThat(restored.count()).isEqualTo(samples.length);
+            assertAccurate(restored, samples);
+            for (double q : QUANTILES) {
+                assertThat(restored.quantile(q)).isEqualTo(merged.quantile(q));
+            }
+        }
+    }
+
+    @Test
+    void emptySketchHasNoQuantile() {
+        assertThat(new LatencySketch().quantile(0.95)).isNull();
+        assertThat(LatencySketch.fromBytes(null).isEmpty()).isTrue();
+        assertThat(LatencySketch.fromBytes(new LatencySketch().toBytes()).quantile(0.5)).isNull();
+    }
+
+    private static List<IntSupplier> distributions(Random random) {
+        return List.of(
+            // Log-normal around ~800 ms, typical page load
+            () -> (int) Math.round(Math.exp(6.7 + 0.8 * random.nextGaussian())),
+            // Uniform 1 ms .. 10 min
+            () -> 1 + random.nextInt(600_000),
+            // Bimodal: cache hits and slow origin
+            () -> random.nextInt(10) < 8 ? 20 + random.nextInt(30) : 3_000 + random.nextInt(7_000),
+            // Failed loads recorded as 0 ms mixed with normal ones
+            () -> random.nextInt(20) == 0 ? 0 : 100 + random.nextInt(2_000)
+        );
+    }
+
+    private static int[] samples(IntSupplier distribution, int n) {
+        int[] samples = new int[n];
+        for (int i = 0; i < n; i++) {
+            samples[i] = Math.max(0, distribution.getAsInt());
+        }
+        return samples;
+    }
+
+    private static void assertAccurate(LatencySketch sketch, int[] samples) {
+        int[] sorted = samples.clone();
+        Arrays.sort(sorted);
+        for (double q : QUANTILES) {
+            int exact = exactNearestRank(sorted, q);
+            // Documented bound: 1% relative, plus 0.5 ms from rounding to whole ms
+            double bound = LatencySketch.RELATIVE_ACCURACY * exact + 0.5;
+
+            assertThat((double) sketch.quantile(q))
+                .as("q=%s over %d samples (exact %d ms)", q, sorted.length, exact)
+                .isBetween(exact - bound, exact + bound);
+        }
+    }
+
+    private static int exactNearestRank(int[] sorted, double q) {
+        int rank = (int) Math.ceil(sorted.length * q) - 1;
+        return sorted[Math.max(0, Math.min(rank, sorted.length - 1))];
+    }
+}
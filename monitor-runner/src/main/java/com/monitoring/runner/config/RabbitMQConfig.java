@@ -1,5 +1,7 @@
 package com.monitoring.runner.config;
 
+import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.core.QueueBuilder;
 import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
 import org.springframework.amqp.rabbit.connection.ConnectionFactory;
 import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
@@ -10,6 +12,20 @@ import org.springframework.context.annotation.Configuration;
 public class RabbitMQConfig {
     
     public static final String RUN_CHECK_QUEUE = "monitor.run-check";
+    public static final String RUN_CHECK_PRIORITY_QUEUE = "monitor.run-check.priority";
+    
+    // Same declarations as monitor-api, so either side can start first
+    @Bean
+    public Queue runCheckQueue() {
+        return new Queue(RUN_CHECK_QUEUE, true);
+    }
+    
+    @Bean
+    public Queue runCheckPriorityQueue() {
+        return QueueBuilder.durable(RUN_CHECK_PRIORITY_QUEUE)
+            .maxPriority(10)
+            .build();
+    }
     
     @Bean
     public Jackson2JsonMessageConverter jsonMessageConverter() {
@@ -24,6 +40,9 @@ public class RabbitMQConfig {
         factory.setMessageConverter(jsonMessageConverter());
         factory.setConcurrentConsumers(3);
         factory.setMaxConcurrentConsumers(5);
+        // One unacked message per consumer: a large prefetch would buffer routine checks
+        // client-side and bypass the broker's priority ordering
+        factory.setPrefetchCount(1);
         return factory;
     }
 }
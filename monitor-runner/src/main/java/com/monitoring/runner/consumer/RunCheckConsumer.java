@@ -16,12 +16,12 @@ import org.springframework.stereotype.Component;
  * 
  * <p>Faz parte do padrão Producer-Consumer para execução assíncrona de checks:</p>
  * <pre>
- * monitor-api (producer)  -->  RabbitMQ (run-check-queue)  -->  monitor-runner (consumer)
+ * monitor-api (producer)  -->  RabbitMQ (monitor.run-check.priority)  -->  monitor-runner (consumer)
  * </pre>
  * 
  * <p><b>Fluxo de Processamento:</b></p>
  * <ol>
- *   <li>Recebe mensagem RunCheckMessage da fila run-check-queue</li>
+ *   <li>Recebe mensagem RunCheckMessage da fila monitor.run-check.priority</li>
  *   <li>Busca configuração completa do site via API (GET /api/sites/{id}/config)</li>
  *   <li>Valida que o site tem páginas configuradas</li>
  *   <li>Executa check sintético usando PlaywrightExecutor</li>
@@ -33,13 +33,19 @@ import org.springframework.stereotype.Component;
  * {
  *   "siteId": 1,
  *   "siteName": "Meu Site",
- *   "triggeredBy": "SCHEDULED"  // ou "MANUAL"
+ *   "triggeredBy": "SCHEDULED"  // ou "MANUAL", "RECHECK"
  * }
  * </pre>
  * 
+ * <p><b>Prioridades:</b> a fila tem x-max-priority=10 e o producer define a prioridade
+ * pela origem: MANUAL (9) &gt; RECHECK de site degradado (5) &gt; SCHEDULED (1). Com
+ * prefetch 1 o broker entrega sempre a mensagem de maior prioridade pendente, então um
+ * check manual não espera o backlog de checks de rotina. A fila antiga monitor.run-check
+ * continua sendo consumida para escoar mensagens de producers anteriores.</p>
+ * 
  * <p><b>Configuração do Listener:</b></p>
  * <ul>
- *   <li>Queue: run-check-queue (durável)</li>
+ *   <li>Queues: monitor.run-check.priority (durável, prioridades) e monitor.run-check (legada)</li>
  *   <li>Exchange: check.topic (topic exchange)</li>
  *   <li>Routing Key: site.check</li>
  *   <li>Ack Mode: AUTO (Spring AMQP padrão)</li>
@@ -88,10 +94,10 @@ public class RunCheckConsumer {
         this.executor = executor;
     }
     
-    @RabbitListener(queues = RabbitMQConfig.RUN_CHECK_QUEUE)
+    @RabbitListener(queues = { RabbitMQConfig.RUN_CHECK_PRIORITY_QUEUE, RabbitMQConfig.RUN_CHECK_QUEUE })
     public void handleRunCheck(RunCheckMessage message) {
-        log.info("Received run check message for site: {} (id={})", 
-            message.siteName(), message.siteId());
+        log.info("Received {} run check message for site: {} (id={})", 
+            message.triggeredBy() != null ? message.triggeredBy() : "SCHEDULED", message.siteName(), message.siteId());
         
         try {
             // Fetch site configuration
@@ -3,5 +3,6 @@ package com.monitoring.runner.dto;
 public record PageConfig(
     Long pageId,
     String name,
-    String path
+    String path,
+    String checkMode
 ) {}
@@ -1,5 +1,7 @@
 package com.monitoring.runner.dto;
 
+import java.util.Map;
+
 public class PageResultDTO {
     private Long pageId;
     private String finalUrl;
@@ -8,6 +10,7 @@ public class PageResultDTO {
     private Integer loadMs;
     private Integer requestsCount;
     private Long totalBytes;
+    private Map<String, Long> bytesByType;
     
     // Getters and setters
     public Long getPageId() {
@@ -65,4 +68,12 @@ public class PageResultDTO {
     public void setTotalBytes(Long totalBytes) {
         this.totalBytes = totalBytes;
     }
+    
+    public Map<String, Long> getBytesByType() {
+        return bytesByType;
+    }
+    
+    public void setBytesByType(Map<String, Long> bytesByType) {
+        this.bytesByType = bytesByType;
+    }
 }
@@ -3,5 +3,6 @@ package com.monitoring.runner.dto;
 public record RunCheckMessage(
     Long siteId,
     String siteName,
-    String baseUrl
+    String baseUrl,
+    String triggeredBy
 ) {}
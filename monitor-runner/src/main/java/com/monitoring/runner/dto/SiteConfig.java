@@ -6,5 +6,6 @@ public record SiteConfig(
     Long siteId,
     String name,
     String baseUrl,
+    String checkMode,
     List<PageConfig> pages
 ) {}
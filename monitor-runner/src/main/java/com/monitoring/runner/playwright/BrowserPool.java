@@ -0,0 +1,303 @@
+package com.monitoring.runner.playwright;
+
+import com.microsoft.playwright.Browser;
+import com.microsoft.playwright.BrowserContext;
+import com.microsoft.playwright.BrowserType;
+import com.microsoft.playwright.Playwright;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pool de browsers Playwright de longa duração, um por thread de trabalho.
+ *
+ * <p>O Playwright Java não é thread-safe: um {@link Playwright} e todos os objetos
+ * criados a partir dele devem ser usados pela mesma thread. Por isso o pool mantém
+ * uma instância Playwright + Browser por thread (consumers RabbitMQ e workers de página)
+ * e entrega um {@link BrowserContext} novo e isolado a cada check.</p>
+ *
+ * <p><b>Ciclo de vida de um browser:</b></p>
+ * <ol>
+ *   <li>Lançado sob demanda no primeiro {@link #acquire()} da thread</li>
+ *   <li>Reutilizado pelos checks seguintes (cada um com contexto próprio)</li>
+ *   <li>Health check a cada acquire: browser desconectado é descartado e relançado</li>
+ *   <li>Reciclado após {@code playwright.pool.max-uses-per-browser} contextos</li>
+ *   <li>Fechado no shutdown da aplicação ou quando a thread dona termina</li>
+ * </ol>
+ *
+ * <p><b>Configurações:</b></p>
+ * <pre>
+ * playwright.pool.max-uses-per-browser=50   - Contextos por browser antes de reciclar
+ * </pre>
+ *
+ * <p><b>Métricas (Micrometer):</b></p>
+ * <pre>
+ * runner.browser.pool.size        - Browsers vivos no pool
+ * runner.browser.pool.in-use      - Contextos em uso
+ * runner.browser.pool.launches    - Browsers lançados
+ * runner.browser.pool.recycles    - Browsers reciclados por max-uses
+ * runner.browser.pool.unhealthy   - Browsers descartados por falha de health check
+ * </pre>
+ *
+ * @author Sistema de Monitoramento
+ * @version 1.0
+ * @since 2026-02-02
+ * @see PlaywrightExecutor
+ */
+@Component
+public class BrowserPool {
+    private static final Logger log = LoggerFactory.getLogger(BrowserPool.class);
+
+    private final Map<Thread, PooledBrowser> browsers = new ConcurrentHashMap<>();
+    private final AtomicInteger inUse = new AtomicInteger(0);
+
+    private final Counter launches;
+    private final Counter recycles;
+    private final Counter unhealthy;
+
+    @Value("${playwright.headless:true}")
+    private boolean headless;
+
+    @Value("${playwright.timeout-ms:30000}")
+    private int timeoutMs;
+
+    @Value("${playwright.viewport-width:1920}")
+    private int viewportWidth;
+
+    @Value("${playwright.viewport-height:1080}")
+    private int viewportHeight;
+
+    @Value("${playwright.browser:firefox}")
+    private String browserType;
+
+    @Value("${playwright.pool.max-uses-per-browser:50}")
+    private int maxUsesPerBrowser;
+
+    public BrowserPool(MeterRegistry meterRegistry) {
+        this.launches = meterRegistry.counter("runner.browser.pool.launches");
+        this.recycles = meterRegistry.counter("runner.browser.pool.recycles");
+        this.unhealthy = meterRegistry.counter("runner.browser.pool.unhealthy");
+        Gauge.builder("runner.browser.pool.size", browsers, Map::size).register(meterRegistry);
+        Gauge.builder("runner.browser.pool.in-use", inUse, AtomicInteger::get).register(meterRegistry);
+    }
+
+    /**
+     * Entrega um contexto novo no browser da thread atual, lançando o browser se necessário.
+     *
+     * <p>O contexto deve ser devolvido com {@link PooledContext#close()} na mesma thread.</p>
+     *
+     * @return contexto isolado (cookies, storage) pronto para uso
+     */
+    public PooledContext acquire() {
+        reapOrphans();
+
+        Thread owner = Thread.currentThread();
+        PooledBrowser pooled = browsers.get(owner);
+
+        if (pooled != null && !pooled.isHealthy()) {
+            log.warn("Discarding unhealthy browser on thread {}", owner.getName());
+            unhealthy.increment();
+            discard(owner, pooled);
+            pooled = null;
+        }
+
+        if (pooled == null) {
+            pooled = launch();
+            browsers.put(owner, pooled);
+        }
+
+        BrowserContext context = pooled.browser().newContext(new Browser.NewContextOptions()
+            .setViewportSize(viewportWidth, viewportHeight));
+        pooled.uses++;
+        inUse.incrementAndGet();
+
+        return new PooledContext(this, owner, pooled, context);
+    }
+
+    /**
+     * Devolve um contexto ao pool. Fecha o contexto e recicla o browser se atingiu max-uses
+     * ou se foi marcado como inválido durante o check.
+     */
+    void release(PooledContext lease) {
+        inUse.decrementAndGet();
+
+        try {
+            lease.context().close();
+        } catch (Exception e) {
+            log.debug("Failed to close browser context: {}", e.getMessage());
+        }
+
+        PooledBrowser pooled = lease.browser();
+        if (lease.isInvalidated()) {
+            unhealthy.increment();
+            discard(lease.owner(), pooled);
+        } else if (pooled.uses >= maxUsesPerBrowser) {
+            log.info("Recycling browser after {} uses on thread {}", pooled.uses, lease.owner().getName());
+            recycles.increment();
+            discard(lease.owner(), pooled);
+        }
+    }
+
+    public int size() {
+        return browsers.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        log.info("Closing {} pooled browsers", browsers.size());
+        browsers.forEach(this::discard);
+    }
+
+    /**
+     * Fecha browsers cujas threads donas já terminaram (ex: consumer reduzido pelo
+     * container RabbitMQ). Como a thread morreu, não há uso concorrente do Playwright.
+     */
+    private void reapOrphans() {
+        browsers.forEach((thread, pooled) -> {
+            if (!thread.isAlive()) {
+                log.info("Closing browser of terminated thread {}", thread.getName());
+                discard(thread, pooled);
+            }
+        });
+    }
+
+    private void discard(Thread owner, PooledBrowser pooled) {
+        browsers.remove(owner, pooled);
+        try {
+            pooled.playwright().close();
+        } catch (Exception e) {
+            log.debug("Failed to close Playwright instance: {}", e.getMessage());
+        }
+    }
+
+    private PooledBrowser launch() {
+        Playwright playwright = Playwright.create();
+        try {
+            Browser browser = launchBrowser(playwright);
+            launches.increment();
+            return new PooledBrowser(playwright, browser);
+        } catch (RuntimeException e) {
+            playwright.close();
+            throw e;
+        }
+    }
+
+    private Browser launchBrowser(Playwright playwright) {
+        BrowserType.LaunchOptions options = new BrowserType.LaunchOptions()
+            .setHeadless(headless)
+            .setTimeout(timeoutMs);
+
+        try {
+            switch (browserType.toLowerCase()) {
+                case "firefox":
+                    log.info("Launching Firefox browser");
+                    return playwright.firefox().launch(options);
+                case "webkit":
+                    log.info("Launching WebKit browser");
+                    return playwright.webkit().launch(options);
+                case "chromium":
+                default:
+                    log.info("Launching Chromium browser");
+                    return playwright.chromium().launch(options);
+            }
+        } catch (Exception e) {
+            log.warn("Failed to launch {} browser, falling back to Firefox: {}", browserType, e.getMessage());
+            try {
+                return playwright.firefox().launch(options);
+            } catch (Exception ex) {
+                log.warn("Failed to launch Firefox, trying WebKit: {}", ex.getMessage());
+                return playwright.webkit().launch(options);
+            }
+        }
+    }
+
+    /**
+     * Browser vivo no pool. Acessado apenas pela thread dona (exceto no fechamento).
+     */
+    static final class PooledBrowser {
+        private final Playwright playwright;
+        private final Browser browser;
+        private int uses;
+
+        PooledBrowser(Playwright playwright, Browser browser) {
+            this.playwright = playwright;
+            this.browser = browser;
+        }
+
+        Playwright playwright() {
+            return playwright;
+        }
+
+        Browser browser() {
+            return browser;
+        }
+
+        boolean isHealthy() {
+            try {
+                return browser.isConnected();
+            } catch (Exception e) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Contexto emprestado do pool. Use com try-with-resources.
+     */
+    public static final class PooledContext implements AutoCloseable {
+        private final BrowserPool pool;
+        private final Thread owner;
+        private final PooledBrowser browser;
+        private final BrowserContext context;
+        private boolean invalidated;
+        private boolean closed;
+
+        PooledContext(BrowserPool pool, Thread owner, PooledBrowser browser, BrowserContext context) {
+            this.pool = pool;
+            this.owner = owner;
+            this.browser = browser;
+            this.context = context;
+        }
+
+        public BrowserContext context() {
+            return context;
+        }
+
+        /**
+         * Marca o browser como inválido (ex: crash ou erro fatal do driver);
+         * ele será descartado ao devolver o contexto.
+         */
+        public void invalidate() {
+            this.invalidated = true;
+        }
+
+        boolean isInvalidated() {
+            return invalidated;
+        }
+
+        Thread owner() {
+            return owner;
+        }
+
+        PooledBrowser browser() {
+            return browser;
+        }
+
+        @Override
+        public void close() {
+            if (!closed) {
+                closed = true;
+                pool.release(this);
+            }
+        }
+    }
+}
@@ -1,19 +1,33 @@
 package com.monitoring.runner.playwright;
 
+import com.microsoft.playwright.Request;
 import com.microsoft.playwright.Response;
+import com.microsoft.playwright.options.Sizes;
 import com.monitoring.runner.dto.FailureDTO;
 import com.monitoring.runner.dto.RequestErrorDTO;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * Coleta requests, erros HTTP e bytes transferidos de uma página.
+ *
+ * <p>Os bytes são contabilizados pelo tamanho de transferência reportado pelo browser
+ * ({@link Request#sizes()}: headers + body codificado), com fallback para o header
+ * Content-Length. O corpo das respostas nunca é lido, evitando copiar imagens, vídeos
+ * e bundles do driver Playwright para o heap da JVM.</p>
+ */
 public class NetworkCollector {
     private final List<RequestErrorDTO> requestErrors = new ArrayList<>();
     private final List<FailureDTO> failures = new ArrayList<>();
     private final AtomicInteger requestCount = new AtomicInteger(0);
     private final AtomicLong totalBytes = new AtomicLong(0);
+    private final Map<String, AtomicLong> bytesByType = new ConcurrentHashMap<>();
     
     public void onRequest() {
         requestCount.incrementAndGet();
@@ -25,11 +39,6 @@ public class NetworkCollector {
             String url = response.url();
             String resourceType = response.request().resourceType();
             
-            // Track response size
-            if (response.body() != null) {
-                totalBytes.addAndGet(response.body().length);
-            }
-            
             // Check for errors
             if (status >= 400) {
                 RequestErrorDTO error = new RequestErrorDTO(
@@ -69,6 +78,49 @@ public class NetworkCollector {
         }
     }
     
+    /**
+     * Contabiliza os bytes de um request concluído. Chamado em {@code requestfinished},
+     * quando os tamanhos de transferência já estão disponíveis no browser.
+     */
+    public void onRequestFinished(Request request) {
+        try {
+            long bytes = transferSize(request);
+            if (bytes > 0) {
+                totalBytes.addAndGet(bytes);
+                bytesByType.computeIfAbsent(request.resourceType(), k -> new AtomicLong())
+                    .addAndGet(bytes);
+            }
+        } catch (Exception e) {
+            // Ignore errors in collector
+        }
+    }
+    
+    private long transferSize(Request request) {
+        try {
+            Sizes sizes = request.sizes();
+            long bytes = Math.max(0, sizes.responseHeadersSize) + Math.max(0, sizes.responseBodySize);
+            if (bytes > 0) {
+                return bytes;
+            }
+        } catch (Exception e) {
+            // Sizes not available for this request, fall back to Content-Length
+        }
+        
+        Response response = request.response();
+        if (response == null) {
+            return 0;
+        }
+        String contentLength = response.headers().get("content-length");
+        if (contentLength == null) {
+            return 0;
+        }
+        try {
+            return Long.parseLong(contentLength.trim());
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+    
     public void onRequestFailed(String url, String errorMessage) {
         requestErrors.add(new RequestErrorDTO(
             "unknown",
@@ -112,4 +164,10 @@ public class NetworkCollector {
     public long getTotalBytes() {
         return totalBytes.get();
     }
+    
+    public Map<String, Long> getBytesByType() {
+        Map<String, Long> snapshot = new TreeMap<>();
+        bytesByType.forEach((type, bytes) -> snapshot.put(type, bytes.get()));
+        return snapshot;
+    }
 }
@@ -0,0 +1,23 @@
+package com.monitoring.runner.playwright;
+
+import com.monitoring.runner.dto.FailureDTO;
+import com.monitoring.runner.dto.PageResultDTO;
+import com.monitoring.runner.dto.RequestErrorDTO;
+
+import java.util.List;
+
+/**
+ * Resultado da execução de uma única página dentro de um check.
+ *
+ * <p>{@code pageResult} é null quando a navegação falhou; nesse caso {@code failures}
+ * contém a falha NAVIGATION_FAILED da página.</p>
+ */
+public record PageExecutionResult(
+    PageResultDTO pageResult,
+    List<FailureDTO> failures,
+    List<RequestErrorDTO> requestErrors
+) {
+    public static PageExecutionResult failed(FailureDTO failure) {
+        return new PageExecutionResult(null, List.of(failure), List.of());
+    }
+}
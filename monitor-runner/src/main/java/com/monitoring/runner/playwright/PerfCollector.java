@@ -6,6 +6,7 @@ public class PerfCollector {
     private Integer ttfbMs;
     private Integer domMs;
     private Integer loadMs;
+    private Long transferBytes;
     
     public void collectMetrics(Page page) {
         try {
@@ -33,6 +34,28 @@ public class PerfCollector {
         }
     }
     
+    /**
+     * Soma os bytes transferidos segundo a Resource Timing API (navegação + recursos).
+     * Usa {@code transferSize} e, quando zerado (recurso cross-origin sem
+     * Timing-Allow-Origin), {@code encodedBodySize}. Usado como fallback quando o
+     * browser não reporta tamanhos por request.
+     */
+    public void collectTransferSizes(Page page) {
+        try {
+            Object total = page.evaluate(
+                "() => performance.getEntriesByType('navigation')\n" +
+                "  .concat(performance.getEntriesByType('resource'))\n" +
+                "  .reduce((sum, e) => sum + (e.transferSize || e.encodedBodySize || 0), 0)"
+            );
+            
+            if (total instanceof Number) {
+                transferBytes = ((Number) total).longValue();
+            }
+        } catch (Exception e) {
+            // Ignore collection errors
+        }
+    }
+    
     private Integer toInteger(Object value) {
         if (value instanceof Number) {
             return ((Number) value).intValue();
@@ -51,4 +74,8 @@ public class PerfCollector {
     public Integer getLoadMs() {
         return loadMs;
     }
+    
+    public Long getTransferBytes() {
+        return transferBytes;
+    }
 }
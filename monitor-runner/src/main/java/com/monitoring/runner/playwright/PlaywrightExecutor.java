@@ -3,7 +3,10 @@ package com.monitoring.runner.playwright;
 import com.microsoft.playwright.*;
 import com.microsoft.playwright.options.LoadState;
 import com.monitoring.runner.dto.*;
+import com.monitoring.runner.probe.HttpProbeExecutor;
 import io.github.resilience4j.retry.annotation.Retry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
@@ -12,13 +15,19 @@ import org.springframework.stereotype.Component;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Executor principal responsável por executar testes sintéticos usando Playwright.
  * 
  * <p>Este componente orquestra todo o processo de automação de browser:</p>
  * <ul>
- *   <li>Launch e configuração do browser (Firefox/WebKit/Chromium)</li>
+ *   <li>Obtenção de contexto isolado no browser da thread ({@link BrowserPool})</li>
  *   <li>Navegação para páginas do site</li>
  *   <li>Coleta de métricas de performance (TTFB, Load Time, DOM Content)</li>
  *   <li>Detecção de erros JavaScript e console</li>
@@ -56,12 +65,15 @@ import java.util.List;
  * playwright.viewport-width=1920        - Largura da viewport
  * playwright.viewport-height=1080       - Altura da viewport
  * playwright.browser=firefox            - Browser a usar
+ * playwright.pool.max-uses-per-browser=50 - Checks por browser antes de reciclar
+ * execution.parallel-pages.enabled=false   - Executa páginas do site em paralelo
+ * execution.parallel-pages.max-per-site=4  - Contextos simultâneos por site
+ * execution.parallel-pages.workers=8       - Threads de página (limite global)
  * </pre>
  * 
  * <p><b>Fluxo de execução:</b></p>
  * <ol>
- *   <li>Launch browser com configurações especificadas</li>
- *   <li>Create browser context (isolação, cookies, etc)</li>
+ *   <li>Acquire de browser context novo no BrowserPool (browser reutilizado entre checks)</li>
  *   <li>Setup event listeners (erros, console, requests)</li>
  *   <li>Para cada página do site:
  *     <ul>
@@ -72,7 +84,7 @@ import java.util.List;
  *       <li>Save results</li>
  *     </ul>
  *   </li>
- *   <li>Close browser</li>
+ *   <li>Close context (browser volta ao pool)</li>
  *   <li>Aggregate and return results</li>
  * </ol>
  * 
@@ -97,27 +109,59 @@ import java.util.List;
  * @version 1.0
  * @since 2026-02-02
  * @see com.microsoft.playwright.Playwright
+ * @see BrowserPool
  * @see IngestRunRequest
- * @see PageCheckResult
+ * @see PageExecutionResult
  */
 @Component
 public class PlaywrightExecutor {
     private static final Logger log = LoggerFactory.getLogger(PlaywrightExecutor.class);
     
-    @Value("${playwright.headless:true}")
-    private boolean headless;
+    private final BrowserPool browserPool;
+    private final HttpProbeExecutor httpProbeExecutor;
     
     @Value("${playwright.timeout-ms:30000}")
     private int timeoutMs;
     
-    @Value("${playwright.viewport-width:1920}")
-    private int viewportWidth;
+    @Value("${execution.parallel-pages.enabled:false}")
+    private boolean parallelPagesEnabled;
     
-    @Value("${playwright.viewport-height:1080}")
-    private int viewportHeight;
+    @Value("${execution.parallel-pages.max-per-site:4}")
+    private int maxContextsPerSite;
     
-    @Value("${playwright.browser:firefox}")
-    private String browserType;
+    @Value("${execution.parallel-pages.workers:8}")
+    private int pageWorkerCount;
+    
+    private ExecutorService pageWorkers;
+    
+    public PlaywrightExecutor(BrowserPool browserPool, HttpProbeExecutor httpProbeExecutor) {
+        this.browserPool = browserPool;
+        this.httpProbeExecutor = httpProbeExecutor;
+    }
+    
+    @PostConstruct
+    void startPageWorkers() {
+        if (!parallelPagesEnabled) {
+            return;
+        }
+        
+        AtomicInteger threadIndex = new AtomicInteger(0);
+        pageWorkers = Executors.newFixedThreadPool(pageWorkerCount, runnable -> {
+            Thread thread = new Thread(runnable, "page-worker-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        
+        log.info("Parallel page mode enabled: {} workers, up to {} contexts per site",
+            pageWorkerCount, maxContextsPerSite);
+    }
+    
+    @PreDestroy
+    void stopPageWorkers() {
+        if (pageWorkers != null) {
+            pageWorkers.shutdownNow();
+        }
+    }
     
     /**
      * Executa check sintético em um site com retry automático.
@@ -125,6 +169,15 @@ public class PlaywrightExecutor {
      * <p><b>Retry Policy:</b> Até 3 tentativas com backoff exponencial (2s, 4s, 8s)
      * em caso de erros de rede ou timeout.</p>
      * 
+     * <p><b>Modo paralelo</b> ({@code execution.parallel-pages.enabled=true}): as páginas são
+     * distribuídas em até {@code max-per-site} lanes, cada uma com seu próprio BrowserContext
+     * isolado, executadas no pool global de {@code workers} threads. Os resultados são
+     * mesclados na ordem original das páginas.</p>
+     * 
+     * <p><b>Modo HTTP</b> ({@code checkMode = HTTP} no site ou na página): a página é
+     * verificada pelo {@link HttpProbeExecutor}, sem browser, em paralelo com as páginas
+     * de browser. Se todas as páginas forem HTTP, nenhum browser é utilizado.</p>
+     * 
      * @param siteConfig Configuração do site com páginas a serem testadas
      * @return IngestRunRequest com todos os resultados coletados
      * @throws com.microsoft.playwright.TimeoutError se timeout após todas as tentativas
@@ -137,40 +190,35 @@ public class PlaywrightExecutor {
         request.setSiteId(siteConfig.siteId());
         request.setStartedAt(LocalDateTime.now());
         
-        List<PageResultDTO> allPageResults = new ArrayList<>();
-        List<FailureDTO> allFailures = new ArrayList<>();
-        List<RequestErrorDTO> allRequestErrors = new ArrayList<>();
+        List<PageConfig> pages = siteConfig.pages();
+        PageExecutionResult[] results = new PageExecutionResult[pages.size()];
         
-        try (Playwright playwright = Playwright.create()) {
-            Browser browser = launchBrowser(playwright);
+        List<Integer> browserPages = new ArrayList<>();
+        List<CompletableFuture<Void>> probes = new ArrayList<>();
+        
+        try {
+            for (int i = 0; i < pages.size(); i++) {
+                PageConfig pageConfig = pages.get(i);
+                if (isHttpProbe(siteConfig, pageConfig)) {
+                    int index = i;
+                    probes.add(httpProbeExecutor.probeAsync(siteConfig.baseUrl(), pageConfig)
+                        .thenAccept(result -> results[index] = result));
+                } else {
+                    browserPages.add(i);
+                }
+            }
             
-            BrowserContext context = browser.newContext(new Browser.NewContextOptions()
-                .setViewportSize(viewportWidth, viewportHeight));
+            int lanes = pageWorkers != null ? Math.min(maxContextsPerSite, browserPages.size()) : 1;
             
-            for (PageConfig pageConfig : siteConfig.pages()) {
-                try {
-                    PageExecutionResult result = executePage(context, siteConfig.baseUrl(), pageConfig);
-                    
-                    allPageResults.add(result.pageResult);
-                    allFailures.addAll(result.failures);
-                    allRequestErrors.addAll(result.requestErrors);
-                } catch (Exception e) {
-                    log.error("Failed to execute page: {}", pageConfig.name(), e);
-                    
-                    // Add critical failure
-                    FailureDTO failure = new FailureDTO(
-                        pageConfig.pageId(),
-                        "CRITICAL",
-                        "NAVIGATION_FAILED",
-                        "Failed to navigate to page: " + e.getMessage(),
-                        siteConfig.baseUrl() + pageConfig.path()
-                    );
-                    allFailures.add(failure);
-                }
+            if (lanes > 1) {
+                executeLanesInParallel(siteConfig, browserPages, lanes, results);
+            } else if (!browserPages.isEmpty()) {
+                executeLane(siteConfig, browserPages, results);
             }
             
-            browser.close();
+            CompletableFuture.allOf(probes.toArray(CompletableFuture[]::new)).get();
         } catch (Exception e) {
+            probes.forEach(p -> p.cancel(true));
             log.error("Fatal error during check execution for site: {}", siteConfig.name(), e);
             request.setStatus("FAILED");
             request.setSummary("Fatal error: " + e.getMessage());
@@ -178,6 +226,19 @@ public class PlaywrightExecutor {
             return request;
         }
         
+        List<PageResultDTO> allPageResults = new ArrayList<>();
+        List<FailureDTO> allFailures = new ArrayList<>();
+        List<RequestErrorDTO> allRequestErrors = new ArrayList<>();
+        
+        // Merge in page order, regardless of which lane finished first
+        for (PageExecutionResult result : results) {
+            if (result.pageResult() != null) {
+                allPageResults.add(result.pageResult());
+            }
+            allFailures.addAll(result.failures());
+            allRequestErrors.addAll(result.requestErrors());
+        }
+        
         request.setPageResults(allPageResults);
         request.setFailures(allFailures);
         request.setRequestErrors(allRequestErrors);
@@ -209,6 +270,72 @@ public class PlaywrightExecutor {
         return request;
     }
     
+    private boolean isHttpProbe(SiteConfig siteConfig, PageConfig pageConfig) {
+        String mode = pageConfig.checkMode() != null ? pageConfig.checkMode() : siteConfig.checkMode();
+        return "HTTP".equalsIgnoreCase(mode);
+    }
+    
+    private void executeLanesInParallel(
+            SiteConfig siteConfig,
+            List<Integer> pageIndexes,
+            int lanes,
+            PageExecutionResult[] results) throws InterruptedException, ExecutionException {
+        List<List<Integer>> laneIndexes = new ArrayList<>(lanes);
+        for (int lane = 0; lane < lanes; lane++) {
+            laneIndexes.add(new ArrayList<>());
+        }
+        for (int i = 0; i < pageIndexes.size(); i++) {
+            laneIndexes.get(i % lanes).add(pageIndexes.get(i));
+        }
+        
+        List<Future<?>> futures = new ArrayList<>(lanes);
+        for (List<Integer> indexes : laneIndexes) {
+            futures.add(pageWorkers.submit(() -> executeLane(siteConfig, indexes, results)));
+        }
+        
+        try {
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            futures.forEach(f -> f.cancel(true));
+        }
+    }
+    
+    /**
+     * Executa as páginas indicadas em um contexto próprio, obtido do browser da thread atual.
+     */
+    private void executeLane(SiteConfig siteConfig, List<Integer> pageIndexes, PageExecutionResult[] results) {
+        List<PageConfig> pages = siteConfig.pages();
+        
+        try (BrowserPool.PooledContext pooled = browserPool.acquire()) {
+            BrowserContext context = pooled.context();
+            
+            for (int i : pageIndexes) {
+                PageConfig pageConfig = pages.get(i);
+                try {
+                    results[i] = executePage(context, siteConfig.baseUrl(), pageConfig);
+                } catch (Exception e) {
+                    log.error("Failed to execute page: {}", pageConfig.name(), e);
+                    
+                    // Add critical failure
+                    results[i] = PageExecutionResult.failed(new FailureDTO(
+                        pageConfig.pageId(),
+                        "CRITICAL",
+                        "NAVIGATION_FAILED",
+                        "Failed to navigate to page: " + e.getMessage(),
+                        siteConfig.baseUrl() + pageConfig.path()
+                    ));
+                    
+                    if (e instanceof PlaywrightException && !(e instanceof TimeoutError)) {
+                        // Driver/browser errors may leave the pooled browser in a bad state
+                        pooled.invalidate();
+                    }
+                }
+            }
+        }
+    }
+    
     private PageExecutionResult executePage(BrowserContext context, String baseUrl, PageConfig pageConfig) {
         log.debug("Executing page: {}", pageConfig.name());
         
@@ -223,6 +350,8 @@ public class PlaywrightExecutor {
         
         page.onResponse(response -> networkCollector.onResponse(response));
         
+        page.onRequestFinished(request -> networkCollector.onRequestFinished(request));
+        
         page.onRequestFailed(request -> 
             networkCollector.onRequestFailed(request.url(), request.failure())
         );
@@ -249,7 +378,16 @@ public class PlaywrightExecutor {
         pageResult.setDomMs(perfCollector.getDomMs());
         pageResult.setLoadMs(perfCollector.getLoadMs());
         pageResult.setRequestsCount(networkCollector.getRequestCount());
-        pageResult.setTotalBytes(networkCollector.getTotalBytes());
+        
+        long totalBytes = networkCollector.getTotalBytes();
+        if (totalBytes == 0) {
+            perfCollector.collectTransferSizes(page);
+            if (perfCollector.getTransferBytes() != null) {
+                totalBytes = perfCollector.getTransferBytes();
+            }
+        }
+        pageResult.setTotalBytes(totalBytes);
+        pageResult.setBytesByType(networkCollector.getBytesByType());
         
         List<FailureDTO> failures = new ArrayList<>();
         failures.addAll(networkCollector.getFailures());
@@ -264,39 +402,4 @@ public class PlaywrightExecutor {
         
         return new PageExecutionResult(pageResult, failures, networkCollector.getRequestErrors());
     }
-    
-    private Browser launchBrowser(Playwright playwright) {
-        BrowserType.LaunchOptions options = new BrowserType.LaunchOptions()
-            .setHeadless(headless)
-            .setTimeout(timeoutMs);
-        
-        try {
-            switch (browserType.toLowerCase()) {
-                case "firefox":
-                    log.info("Launching Firefox browser");
-                    return playwright.firefox().launch(options);
-                case "webkit":
-                    log.info("Launching WebKit browser");
-                    return playwright.webkit().launch(options);
-                case "chromium":
-                default:
-                    log.info("Launching Chromium browser");
-                    return playwright.chromium().launch(options);
-            }
-        } catch (Exception e) {
-            log.warn("Failed to launch {} browser, falling back to Firefox: {}", browserType, e.getMessage());
-            try {
-                return playwright.firefox().launch(options);
-            } catch (Exception ex) {
-                log.warn("Failed to launch Firefox, trying WebKit: {}", ex.getMessage());
-                return playwright.webkit().launch(options);
-            }
-        }
-    }
-    
-    private record PageExecutionResult(
-        PageResultDTO pageResult,
-        List<FailureDTO> failures,
-        List<RequestErrorDTO> requestErrors
-    ) {}
 }
@@ -0,0 +1,244 @@
+package com.monitoring.runner.probe;
+
+import com.monitoring.runner.dto.FailureDTO;
+import com.monitoring.runner.dto.PageConfig;
+import com.monitoring.runner.dto.PageResultDTO;
+import com.monitoring.runner.dto.RequestErrorDTO;
+import com.monitoring.runner.playwright.PageExecutionResult;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Executor leve de checks HTTP, sem browser.
+ *
+ * <p>Para páginas que só precisam de status, TTFB e uptime, faz um único GET com
+ * {@link HttpClient} em uma virtual thread e preenche o mesmo formato
+ * {@link PageResultDTO}/{@link FailureDTO} do modo browser. Selecionado por site ou por
+ * página via {@code checkMode = HTTP} no SiteConfig/PageConfig.</p>
+ *
+ * <p><b>Métricas coletadas:</b></p>
+ * <ul>
+ *   <li>TTFB - Até o recebimento dos headers da resposta final (inclui redirects)</li>
+ *   <li>Load Time - Até o fim do body</li>
+ *   <li>Bytes - Tamanho do body (contado em streaming, sem reter o conteúdo)</li>
+ *   <li>Requests - 1 + número de redirects seguidos</li>
+ * </ul>
+ *
+ * <p><b>Falhas geradas:</b></p>
+ * <pre>
+ * 5xx          - CRITICAL XHR_5XX
+ * 404          - MAJOR    ASSET_404
+ * outros 4xx   - MAJOR    XHR_4XX
+ * timeout      - CRITICAL TIMEOUT
+ * erro de rede - CRITICAL NAVIGATION_FAILED
+ * </pre>
+ *
+ * <p><b>Configurações:</b></p>
+ * <pre>
+ * probe.connect-timeout-ms=10000  - Timeout de conexão
+ * probe.timeout-ms=30000          - Timeout total da requisição (headers + body)
+ * probe.max-concurrency=500       - Probes simultâneos por runner
+ * </pre>
+ *
+ * @author Sistema de Monitoramento
+ * @version 1.0
+ * @since 2026-02-02
+ * @see com.monitoring.runner.playwright.PlaywrightExecutor
+ */
+@Component
+public class HttpProbeExecutor {
+    private static final Logger log = LoggerFactory.getLogger(HttpProbeExecutor.class);
+    
+    private final HttpClient httpClient;
+    private final ExecutorService probeThreads = Executors.newVirtualThreadPerTaskExecutor();
+    private final Semaphore permits;
+    private final int timeoutMs;
+    private final String userAgent;
+    
+    public HttpProbeExecutor(
+            @Value("${probe.connect-timeout-ms:10000}") int connectTimeoutMs,
+            @Value("${probe.timeout-ms:30000}") int timeoutMs,
+            @Value("${probe.max-concurrency:500}") int maxConcurrency,
+            @Value("${playwright.user-agent:MonitorBot/1.0}") String userAgent) {
+        this.httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+            .followRedirects(HttpClient.Redirect.NORMAL)
+            .executor(probeThreads)
+            .build();
+        this.permits = new Semaphore(maxConcurrency);
+        this.timeoutMs = timeoutMs;
+        this.userAgent = userAgent;
+    }
+    
+    @PreDestroy
+    void shutdown() {
+        probeThreads.shutdownNow();
+    }
+    
+    /**
+     * Executa o probe de uma página em uma virtual thread.
+     */
+    public CompletableFuture<PageExecutionResult> probeAsync(String baseUrl, PageConfig pageConfig) {
+        return CompletableFuture.supplyAsync(() -> probe(baseUrl, pageConfig), probeThreads);
+    }
+    
+    public PageExecutionResult probe(String baseUrl, PageConfig pageConfig) {
+        String url = baseUrl + pageConfig.path();
+        
+        permits.acquireUninterruptibly();
+        try {
+            return execute(url, pageConfig);
+        } finally {
+            permits.release();
+        }
+    }
+    
+    private PageExecutionResult execute(String url, PageConfig pageConfig) {
+        log.debug("Probing page: {}", pageConfig.name());
+        
+        HttpRequest request;
+        try {
+            request = HttpRequest.newBuilder(URI.create(url))
+                .timeout(Duration.ofMillis(timeoutMs))
+                .header("User-Agent", userAgent)
+                .GET()
+                .build();
+        } catch (IllegalArgumentException e) {
+            return failed(pageConfig, url, "NAVIGATION_FAILED", "Invalid URL: " + e.getMessage());
+        }
+        
+        long startNanos = System.nanoTime();
+        CountingBodyHandler bodyHandler = new CountingBodyHandler();
+        
+        // Request timeout only covers the headers: bound the whole exchange, body included
+        CompletableFuture<HttpResponse<Long>> exchange = httpClient.sendAsync(request, bodyHandler);
+        HttpResponse<Long> response;
+        try {
+            response = exchange.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            exchange.cancel(true);
+            return failed(pageConfig, url, "TIMEOUT", "Timeout after " + timeoutMs + "ms");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof HttpTimeoutException) {
+                return failed(pageConfig, url, "TIMEOUT", "Timeout after " + timeoutMs + "ms");
+            }
+            return failed(pageConfig, url, "NAVIGATION_FAILED", "Failed to navigate to page: " + e.getCause().getMessage());
+        } catch (InterruptedException e) {
+            exchange.cancel(true);
+            Thread.currentThread().interrupt();
+            return failed(pageConfig, url, "NAVIGATION_FAILED", "Probe interrupted");
+        }
+        
+        int totalMs = elapsedMs(startNanos, System.nanoTime());
+        int status = response.statusCode();
+        String finalUrl = response.uri().toString();
+        long bytes = response.body() != null ? response.body() : 0L;
+        
+        int requestsCount = 1;
+        for (var previous = response.previousResponse(); previous.isPresent(); previous = previous.get().previousResponse()) {
+            requestsCount++;
+        }
+        
+        PageResultDTO pageResult = new PageResultDTO();
+        pageResult.setPageId(pageConfig.pageId());
+        pageResult.setFinalUrl(finalUrl);
+        pageResult.setTtfbMs(elapsedMs(startNanos, bodyHandler.headersNanos));
+        pageResult.setLoadMs(totalMs);
+        pageResult.setRequestsCount(requestsCount);
+        pageResult.setTotalBytes(bytes);
+        pageResult.setBytesByType(Map.of("document", bytes));
+        
+        List<FailureDTO> failures = new ArrayList<>();
+        List<RequestErrorDTO> requestErrors = new ArrayList<>();
+        
+        if (status >= 400) {
+            requestErrors.add(new RequestErrorDTO("document", finalUrl, status, totalMs, "HTTP " + status));
+            
+            if (status >= 500) {
+                failures.add(new FailureDTO(pageConfig.pageId(), "CRITICAL", "XHR_5XX",
+                    "Server error on document: " + status, finalUrl));
+            } else if (status == 404) {
+                failures.add(new FailureDTO(pageConfig.pageId(), "MAJOR", "ASSET_404",
+                    "404 Not Found: document", finalUrl));
+            } else {
+                failures.add(new FailureDTO(pageConfig.pageId(), "MAJOR", "XHR_4XX",
+                    "Client error on document: " + status, finalUrl));
+            }
+        }
+        
+        return new PageExecutionResult(pageResult, failures, requestErrors);
+    }
+    
+    private PageExecutionResult failed(PageConfig pageConfig, String url, String type, String message) {
+        return PageExecutionResult.failed(new FailureDTO(pageConfig.pageId(), "CRITICAL", type, message, url));
+    }
+    
+    private static int elapsedMs(long fromNanos, long toNanos) {
+        return (int) Duration.ofNanos(Math.max(0, toNanos - fromNanos)).toMillis();
+    }
+    
+    /**
+     * Marca o instante em que os headers chegaram (TTFB) e conta os bytes do body
+     * sem armazená-los.
+     */
+    private static final class CountingBodyHandler implements HttpResponse.BodyHandler<Long> {
+        private volatile long headersNanos;
+        
+        @Override
+        public HttpResponse.BodySubscriber<Long> apply(HttpResponse.ResponseInfo responseInfo) {
+            headersNanos = System.nanoTime();
+            return HttpResponse.BodySubscribers.fromSubscriber(
+                new CountingSubscriber(), CountingSubscriber::count);
+        }
+    }
+    
+    private static final class CountingSubscriber implements Flow.Subscriber<List<ByteBuffer>> {
+        private long count;
+        
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            subscription.request(Long.MAX_VALUE);
+        }
+        
+        @Override
+        public void onNext(List<ByteBuffer> buffers) {
+            for (ByteBuffer buffer : buffers) {
+                count += buffer.remaining();
+            }
+        }
+        
+        @Override
+        public void onError(Throwable throwable) {
+        }
+        
+        @Override
+        public void onComplete() {
+        }
+        
+        long count() {
+            return count;
+        }
+    }
+}